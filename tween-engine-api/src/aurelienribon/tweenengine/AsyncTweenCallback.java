@@ -0,0 +1,142 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A TweenCallback whose work runs on an executor instead of inside the
+ * update of the tweens, so that heavy handlers (spawning entities, writing
+ * logs...) don't stall TweenManager.update(). Latency-sensitive handlers can
+ * keep using plain callbacks.
+ * <p/>
+ *
+ * <pre> {@code
+ * Tween.to(...)
+ *      .setUserData(myEntity)
+ *      .setCallback(new AsyncTweenCallback(myExecutor) {
+ *          protected void onAsyncEvent(int type, Object userData) {
+ *              spawnExplosion((Entity) userData);
+ *          }
+ *      })
+ *      .start(myManager);
+ * }</pre>
+ *
+ * Events of a given tween or timeline are handled one after the other, in
+ * the order they were fired, even with a multi-threaded executor. Events of
+ * different objects may run concurrently.
+ * <p/>
+ *
+ * Since tweens are pooled, and keep animating while the handler runs, the
+ * handler doesn't receive the tween itself: it receives its user data, as it
+ * was when the event was fired.
+ * <p/>
+ *
+ * <b>Not available with GWT.</b>
+ *
+ * @see TweenCallback
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public abstract class AsyncTweenCallback implements TweenCallback {
+	private final Executor executor;
+	private final IdentityHashMap<BaseTween<?>, EventQueue> queues = new IdentityHashMap<BaseTween<?>, EventQueue>();
+
+	/**
+	 * @param executor The executor running the handlers.
+	 */
+	public AsyncTweenCallback(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Handles an event, on a thread of the executor.
+	 *
+	 * @param type The type of the event, see {@link TweenCallback}.
+	 * @param userData The user data of the tween or timeline, when the event
+	 * was fired.
+	 */
+	protected abstract void onAsyncEvent(int type, Object userData);
+
+	@Override
+	public final void onEvent(int type, BaseTween<?> source) {
+		EventQueue queue;
+
+		synchronized (queues) {
+			queue = queues.get(source);
+			if (queue == null) queues.put(source, queue = new EventQueue(source));
+			queue.events.add(new Event(type, source.getUserData()));
+			if (queue.isScheduled) return;
+			queue.isScheduled = true;
+		}
+
+		executor.execute(queue);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static final class Event {
+		final int type;
+		final Object userData;
+
+		Event(int type, Object userData) {
+			this.type = type;
+			this.userData = userData;
+		}
+	}
+
+	/**
+	 * The pending events of one tween or timeline. It is scheduled on the
+	 * executor at most once at a time, which keeps its events in order.
+	 */
+	private final class EventQueue implements Runnable {
+		final BaseTween<?> source;
+		final ArrayDeque<Event> events = new ArrayDeque<Event>();
+		boolean isScheduled;
+
+		EventQueue(BaseTween<?> source) {
+			this.source = source;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				Event event;
+
+				synchronized (queues) {
+					event = events.poll();
+					if (event == null) {
+						isScheduled = false;
+						queues.remove(source);
+						return;
+					}
+				}
+
+				boolean isHandled = false;
+				try {
+					onAsyncEvent(event.type, event.userData);
+					isHandled = true;
+				} finally {
+					if (!isHandled) reschedule();
+				}
+			}
+		}
+
+		/**
+		 * Called when a handler threw: the remaining events are handled by a
+		 * new task, after the exception reached the executor.
+		 */
+		private void reschedule() {
+			synchronized (queues) {
+				if (events.isEmpty()) {
+					isScheduled = false;
+					queues.remove(source);
+					return;
+				}
+			}
+
+			executor.execute(this);
+		}
+	}
+}
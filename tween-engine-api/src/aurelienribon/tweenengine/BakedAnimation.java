@@ -0,0 +1,250 @@
+package aurelienribon.tweenengine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Plays back an animation baked by a {@link TweenBaker}: at any time, the
+ * values of each track are interpolated between the two closest keyframes,
+ * and given to the accessor of its target. Nothing else is evaluated, and
+ * nothing is allocated.
+ * <p/>
+ *
+ * <pre> {@code
+ * BakedAnimation intro = BakedAnimation.map(new File("intro.anim"));
+ * Object[] targets = {camera, hero};
+ *
+ * // each frame:
+ * time += delta;
+ * intro.apply(time, targets);
+ * }</pre>
+ *
+ * Files are memory-mapped: the keyframes stay out of the heap, and only the
+ * pages of the played part of the animation are read, by the system. A
+ * baked animation holds no state about its playback: it can be applied to
+ * as many groups of targets as needed, at different times, by a single
+ * thread.
+ *
+ * @see TweenBaker
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class BakedAnimation {
+	/**
+	 * Maps a file written by {@link TweenBaker} in memory.
+	 */
+	public static BakedAnimation map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			return new BakedAnimation(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Reads a baked animation from a buffer, from its position. The buffer
+	 * is not copied.
+	 */
+	public static BakedAnimation wrap(ByteBuffer buffer) {
+		return new BakedAnimation(buffer.slice());
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private final float frameRate;
+	private final float duration;
+	private final int framesCnt;
+	private final int targetsCnt;
+	private final int stride; // number of values of a frame
+	private final FloatBuffer frames;
+
+	// Tracks
+	private final int[] targets;
+	private final int[] types;
+	private final String[] properties;
+	private final int[] offsets;
+	private final int[] sizes;
+
+	// Attributes of the last targets
+	private final Object[] boundTargets;
+	private final TweenAttribute<Object>[] attributes;
+	private final TweenAttribute.Adapter[] adapters;
+	private final float[] buffer;
+
+	private BakedAnimation(ByteBuffer data) {
+		if (data.remaining() < 24 || data.getInt() != TweenBaker.MAGIC) throw new RuntimeException("The data is not a baked animation, or comes from an incompatible version");
+
+		frameRate = data.getFloat();
+		duration = data.getFloat();
+		framesCnt = data.getInt();
+		targetsCnt = data.getInt();
+		int tracksCnt = data.getInt();
+
+		targets = new int[tracksCnt];
+		types = new int[tracksCnt];
+		properties = new String[tracksCnt];
+		offsets = new int[tracksCnt];
+		sizes = new int[tracksCnt];
+		boundTargets = new Object[tracksCnt];
+		@SuppressWarnings("unchecked")
+		TweenAttribute<Object>[] attributes = (TweenAttribute<Object>[]) new TweenAttribute<?>[tracksCnt];
+		this.attributes = attributes;
+		adapters = new TweenAttribute.Adapter[tracksCnt];
+
+		int offset = 0;
+		int maxSize = 0;
+
+		for (int i=0; i<tracksCnt; i++) {
+			targets[i] = data.getInt();
+			types[i] = data.getInt();
+			sizes[i] = data.getInt();
+			int length = data.getShort();
+
+			if (length >= 0) {
+				char[] chars = new char[length];
+				for (int ii=0; ii<length; ii++) chars[ii] = data.getChar();
+				properties[i] = new String(chars);
+			}
+
+			offsets[i] = offset;
+			offset += sizes[i];
+			maxSize = Math.max(maxSize, sizes[i]);
+			adapters[i] = new TweenAttribute.Adapter();
+		}
+
+		while (data.position() % 4 != 0) data.get();
+		stride = offset;
+		buffer = new float[maxSize];
+		frames = data.slice().asFloatBuffer();
+
+		if (frames.remaining() < framesCnt * stride) throw new RuntimeException("The baked animation is truncated");
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the values of the targets at the given time of the animation,
+	 * clamped to its duration.
+	 *
+	 * @param targets The targets, in the order of their index. See
+	 * {@link TweenBaker}.
+	 */
+	public void apply(float time, Object[] targets) {
+		if (targets.length < targetsCnt) throw new RuntimeException("The baked animation needs " + targetsCnt + " targets");
+
+		float position = Math.max(0, Math.min(time, duration)) * frameRate;
+		int frame = Math.min((int) position, framesCnt-1);
+		int next = Math.min(frame+1, framesCnt-1);
+		float t = position - frame;
+
+		for (int i=0; i<this.targets.length; i++) {
+			Object target = targets[this.targets[i]];
+			TweenAttribute<Object> attribute = getAttribute(i, target);
+			int a = frame*stride + offsets[i];
+			int b = next*stride + offsets[i];
+
+			for (int ii=0, n=sizes[i]; ii<n; ii++) {
+				float start = frames.get(a+ii);
+				buffer[ii] = start + t * (frames.get(b+ii) - start);
+			}
+
+			attribute.setValues(target, buffer);
+		}
+	}
+
+	/**
+	 * Gets the duration of the animation, in seconds.
+	 */
+	public float getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Gets the number of keyframes per second.
+	 */
+	public float getFrameRate() {
+		return frameRate;
+	}
+
+	/**
+	 * Gets the number of keyframes.
+	 */
+	public int getFramesCount() {
+		return framesCnt;
+	}
+
+	/**
+	 * Gets the number of targets given to {@link #apply}.
+	 */
+	public int getTargetsCount() {
+		return targetsCnt;
+	}
+
+	/**
+	 * Gets the number of tracks, one for each target and tween type.
+	 */
+	public int getTracksCount() {
+		return targets.length;
+	}
+
+	/**
+	 * Gets the index of the target of a track.
+	 */
+	public int getTrackTarget(int track) {
+		return targets[track];
+	}
+
+	/**
+	 * Gets the tween type of a track, or -1 for a track of properties.
+	 */
+	public int getTrackType(int track) {
+		return types[track];
+	}
+
+	/**
+	 * Gets the number of values of a track.
+	 */
+	public int getTrackSize(int track) {
+		return sizes[track];
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Finds the attribute of a track, in the same way as a tween. The buffer
+	 * receives the current values of the target.
+	 */
+	static TweenAttribute<Object> findAttribute(Object target, int type, String properties,
+		TweenAttribute.Adapter adapter, float[] buffer) {
+
+		if (properties != null) return PropertyAttributes.get(target.getClass(), properties);
+
+		TweenEngine engine = TweenEngine.getDefault();
+		TweenAccessor<Object> accessor = engine.findAccessor(target, engine.findTargetClass(target));
+		return Tween.findAttribute(target, accessor, type, adapter, buffer);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	// Attributes are kept from one call to the next, for the same targets
+	private TweenAttribute<Object> getAttribute(int track, Object target) {
+		if (boundTargets[track] != target || attributes[track] == null) {
+			attributes[track] = findAttribute(target, types[track], properties[track], adapters[track], buffer);
+			boundTargets[track] = target;
+		}
+		return attributes[track];
+	}
+}
@@ -41,10 +41,23 @@ public abstract class BaseTween<T> {
 	// Package access
 	boolean isAutoRemoveEnabled;
 	boolean isAutoStartEnabled;
+	BaseTween<?> container; // timeline or queue holding this object, if any
+	TweenManager manager; // manager holding this object, if any
+	boolean isPooled; // true while the object waits in its pool
+	BaseTween<?> poolNext; // next object of a chain in a thread-safe pool
+	int slot = -1; // index of the handle slot in the manager, if any
+	int index = -1; // index in the objects of its manager, kept while recorded
+	int childIndex; // index in its container, see TweenRecorder
+	int tweensCnt; // number of tweens in this object, itself included
+	int timelinesCnt; // number of timelines in this object, itself included
+	Completion completion; // listeners of the end of this object, if any
+	int traceId; // identifies this object, until freed, in a TweenTraceRecorder
 
 	// -------------------------------------------------------------------------
 
 	protected void reset() {
+		if (completion != null) complete(false);
+
 		step = -2;
 		repeatCnt = 0;
 		isIterationStep = isYoyo = false;
@@ -57,6 +70,12 @@ public abstract class BaseTween<T> {
 		userData = null;
 
 		isAutoRemoveEnabled = isAutoStartEnabled = true;
+		container = null;
+		manager = null;
+		tweensCnt = timelinesCnt = 0;
+		slot = index = -1;
+		childIndex = 0;
+		traceId = 0;
 	}
 
 	// -------------------------------------------------------------------------
@@ -82,6 +101,7 @@ public abstract class BaseTween<T> {
 	 * @return The current object, for chaining instructions.
 	 */
 	public T start() {
+		checkNotFreed();
 		build();
 		currentTime = 0;
 		isStarted = true;
@@ -115,7 +135,12 @@ public abstract class BaseTween<T> {
 	 * will be removed automatically.
 	 */
 	public void kill() {
+		checkNotFreed();
 		isKilled = true;
+		if (TweenTracer.current != null) TweenTracer.current.onKill(this);
+		TweenRecorder recorder = getRecorder();
+		if (recorder != null) recorder.onCommand(TweenRecorder.KILL, this);
+		if (completion != null) complete(false);
 	}
 
 	/**
@@ -130,14 +155,20 @@ public abstract class BaseTween<T> {
 	 * Pauses the tween or timeline. Further update calls won't have any effect.
 	 */
 	public void pause() {
+		checkNotFreed();
 		isPaused = true;
+		TweenRecorder recorder = getRecorder();
+		if (recorder != null) recorder.onCommand(TweenRecorder.PAUSE, this);
 	}
 
 	/**
 	 * Resumes the tween or timeline. Has no effect is it was no already paused.
 	 */
 	public void resume() {
+		checkNotFreed();
 		isPaused = false;
+		TweenRecorder recorder = getRecorder();
+		if (recorder != null) recorder.onCommand(TweenRecorder.RESUME, this);
 	}
 
 	/**
@@ -361,23 +392,34 @@ public abstract class BaseTween<T> {
 	}
 
 	protected void forceToStart() {
-		currentTime = -delay;
-		step = -1;
-		isIterationStep = false;
-		if (isReverse(0)) forceEndValues();
+		if (forceStepToStart()) forceEndValues();
 		else forceStartValues();
 	}
 
 	protected void forceToEnd(float time) {
-		currentTime = time - getFullDuration();
-		step = repeatCnt*2 + 1;
-		isIterationStep = false;
-		if (isReverse(repeatCnt*2)) forceStartValues();
-		else forceEndValues();
+		if (forceStepToEnd(time)) forceEndValues();
+		else forceStartValues();
 	}
 
 	protected void callCallback(int type) {
-		if (callback != null && (callbackTriggers & type) > 0) callback.onEvent(type, this);
+		TweenTracer tracer = TweenTracer.current;
+		if (tracer != null) tracer.onEvent(this, type);
+
+		if (callback != null && (callbackTriggers & type) > 0) {
+			if (tracer != null) {
+				long time = Clock.nanoTime();
+				callback.onEvent(type, this);
+				time = Clock.nanoTime() - time;
+				if (time >= tracer.slowCallbackNanos) tracer.onSlowCallback(this, type, time);
+			} else {
+				callback.onEvent(type, this);
+			}
+
+			if (TweenManager.metricsCnt > 0) {
+				TweenMetrics metrics = getMetrics();
+				if (metrics != null) metrics.onCallback(type);
+			}
+		}
 	}
 
 	protected boolean isReverse(int step) {
@@ -396,6 +438,157 @@ public abstract class BaseTween<T> {
 		if (containsTarget(target, tweenType)) kill();
 	}
 
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Moves before the first iteration. Returns true if the end values have
+	 * to be forced, false for the start values.
+	 */
+	boolean forceStepToStart() {
+		currentTime = -delay;
+		step = -1;
+		isIterationStep = false;
+		return isReverse(0);
+	}
+
+	/**
+	 * Moves after the last iteration. Returns true if the end values have to
+	 * be forced, false for the start values.
+	 */
+	boolean forceStepToEnd(float time) {
+		currentTime = time - getFullDuration();
+		step = repeatCnt*2 + 1;
+		isIterationStep = false;
+		return !isReverse(repeatCnt*2);
+	}
+
+	boolean isKilled() {
+		return isKilled;
+	}
+
+	/**
+	 * Listener of the end of a tween or timeline: either its completion, or
+	 * its kill, or its release to the pool before any of them.
+	 */
+	abstract static class Completion {
+		Completion next;
+		abstract void onDone(boolean isCompleted);
+	}
+
+	/**
+	 * Registers a listener of the end of this object. Listeners are notified
+	 * once, then forgotten.
+	 */
+	void addCompletion(Completion c) {
+		c.next = completion;
+		completion = c;
+	}
+
+	private void complete(boolean isCompleted) {
+		Completion c = completion;
+		completion = null;
+
+		while (c != null) {
+			Completion next = c.next;
+			c.next = null;
+			c.onDone(isCompleted);
+			c = next;
+		}
+	}
+
+	/**
+	 * Throws if pool debugging is enabled and the object is in its pool.
+	 */
+	void checkNotFreed() {
+		if (isPooled && Pool.isDebugEnabled) {
+			throw new RuntimeException("This tween or timeline was freed and waits in its pool: it can't be used anymore");
+		}
+	}
+
+	/**
+	 * Adds the given counts to this object, to every container above it, and
+	 * to the manager of the topmost one.
+	 */
+	void updateCounts(int tweens, int timelines) {
+		BaseTween<?> obj = this;
+		while (true) {
+			obj.tweensCnt += tweens;
+			obj.timelinesCnt += timelines;
+			if (obj.container == null) break;
+			obj = obj.container;
+		}
+		if (obj.manager != null) obj.manager.updateCounts(tweens, timelines);
+	}
+
+	/**
+	 * Gets the metrics of the manager of the topmost container, if any.
+	 */
+	TweenMetrics getMetrics() {
+		BaseTween<?> obj = this;
+		while (obj.container != null) obj = obj.container;
+		return obj.manager != null ? obj.manager.metrics : null;
+	}
+
+	/**
+	 * Gets the recorder of the manager of the topmost container, if any.
+	 */
+	TweenRecorder getRecorder() {
+		BaseTween<?> obj = this;
+		while (obj.container != null) obj = obj.container;
+		return obj.manager != null ? obj.manager.recorder : null;
+	}
+
+	/**
+	 * Writes the state of the object to a snapshot. Overridden by the
+	 * subclasses, which write their own state after this one.
+	 */
+	void writeState(TweenSnapshot s) {
+		int flags = (isIterationStep ? 1 : 0) | (isYoyo ? 2 : 0)
+			| (isStarted ? 4 : 0) | (isInitialized ? 8 : 0) | (isFinished ? 16 : 0)
+			| (isKilled ? 32 : 0) | (isPaused ? 64 : 0)
+			| (isAutoRemoveEnabled ? 128 : 0) | (isAutoStartEnabled ? 256 : 0);
+
+		s.writeShort(flags);
+		s.writeInt(step);
+		s.writeInt(repeatCnt);
+		s.writeFloat(delay);
+		s.writeFloat(duration);
+		s.writeFloat(repeatDelay);
+		s.writeFloat(currentTime);
+		s.writeObject(callback);
+		s.writeInt(callbackTriggers);
+		s.writeObject(userData);
+	}
+
+	/**
+	 * Reads the state written by {@link #writeState}, into an object fresh
+	 * from its pool.
+	 */
+	void readState(TweenSnapshot s) {
+		int flags = s.readShort();
+		isIterationStep = (flags & 1) != 0;
+		isYoyo = (flags & 2) != 0;
+		isStarted = (flags & 4) != 0;
+		isInitialized = (flags & 8) != 0;
+		isFinished = (flags & 16) != 0;
+		isKilled = (flags & 32) != 0;
+		isPaused = (flags & 64) != 0;
+		isAutoRemoveEnabled = (flags & 128) != 0;
+		isAutoStartEnabled = (flags & 256) != 0;
+
+		step = s.readInt();
+		repeatCnt = s.readInt();
+		delay = s.readFloat();
+		duration = s.readFloat();
+		repeatDelay = s.readFloat();
+		currentTime = s.readFloat();
+		callback = (TweenCallback) s.readObject();
+		callbackTriggers = s.readInt();
+		userData = s.readObject();
+	}
+
 	// -------------------------------------------------------------------------
 	// Update engine
 	// -------------------------------------------------------------------------
@@ -411,6 +604,7 @@ public abstract class BaseTween<T> {
 	 * @param delta A delta time between now and the last call.
 	 */
 	public void update(float delta) {
+		checkNotFreed();
 		if (!isStarted || isPaused || isKilled) return;
 
 		deltaTime = delta;
@@ -539,5 +733,6 @@ public abstract class BaseTween<T> {
 
 	private void testCompletion() {
 		isFinished = repeatCnt >= 0 && (step > repeatCnt*2 || step < 0);
+		if (isFinished && completion != null) complete(true);
 	}
 }
@@ -0,0 +1,14 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Gives access to the parts of the class hierarchy that GWT can't emulate.
+ * A version for GWT, which sees no interface at all, is found in the "emu"
+ * folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class ClassHierarchy {
+	static Class<?>[] getInterfaces(Class<?> type) {
+		return type.getInterfaces();
+	}
+}
@@ -0,0 +1,13 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Gives a monotonic time in nanoseconds, to measure durations. A version for
+ * GWT, which has no such clock, is found in the "emu" folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class Clock {
+	static long nanoTime() {
+		return System.nanoTime();
+	}
+}
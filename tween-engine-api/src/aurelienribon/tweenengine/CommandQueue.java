@@ -0,0 +1,43 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The queue of commands posted to a TweenManager. Any thread can push
+ * commands, without ever blocking, and only the thread updating the manager
+ * takes them. Pushed commands form a lock-free stack, reversed when they are
+ * taken. A GWT version, without any atomic, is found in the "emu" folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class CommandQueue {
+	private final AtomicReference<TweenManager.Command> top = new AtomicReference<TweenManager.Command>();
+
+	void push(TweenManager.Command cmd) {
+		TweenManager.Command head;
+		do {
+			head = top.get();
+			cmd.next = head;
+		} while (!top.compareAndSet(head, cmd));
+	}
+
+	/**
+	 * Takes every pushed command, in the order they were pushed. Returns null
+	 * if there is none.
+	 */
+	TweenManager.Command takeAll() {
+		if (top.get() == null) return null;
+		return reverse(top.getAndSet(null));
+	}
+
+	private static TweenManager.Command reverse(TweenManager.Command cmd) {
+		TweenManager.Command first = null;
+		while (cmd != null) {
+			TweenManager.Command next = cmd.next;
+			cmd.next = first;
+			first = cmd;
+			cmd = next;
+		}
+		return first;
+	}
+}
@@ -0,0 +1,76 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free stack of free indices, each with an int value, used by
+ * TweenManager to recycle its slots and its commands. Any thread can take
+ * indices, without ever blocking, but only the thread updating the manager
+ * gives them back. Nothing is allocated, except when the stack grows.
+ * <p/>
+ *
+ * The stack is linked through an array, and its top is stamped by every
+ * change, so that an index taken and given back while another thread was
+ * taking it can't be given twice (the ABA problem). A GWT version, without
+ * any atomic, is found in the "emu" folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class IndexStack {
+	private final AtomicLong top = new AtomicLong(); // stamp << 32 | (index + 1)
+	private final AtomicInteger indicesCnt = new AtomicInteger();
+	private volatile int[] links = new int[0]; // next index + 1, and value, of each index
+
+	/**
+	 * Creates a new index, never given before. Can be called from any thread.
+	 */
+	int create() {
+		return indicesCnt.getAndIncrement();
+	}
+
+	/**
+	 * Takes a free index, or returns -1 if there is none. Can be called from
+	 * any thread.
+	 */
+	int pop() {
+		while (true) {
+			long t = top.get();
+			int index = (int) t - 1;
+			if (index < 0) return -1;
+
+			int[] links = this.links;
+			long next = ((t >>> 32) + 1) << 32 | (links[index*2] & 0xFFFFFFFFL);
+			if (top.compareAndSet(t, next)) return index;
+		}
+	}
+
+	/**
+	 * Gets the value given with an index taken by {@link #pop()}.
+	 */
+	int getValue(int index) {
+		return links[index*2+1];
+	}
+
+	/**
+	 * Gives back an index, with a value. Must only be called by the thread
+	 * updating the manager.
+	 */
+	void push(int index, int value) {
+		int[] links = this.links;
+
+		if (index*2 >= links.length) {
+			int[] newLinks = new int[Math.max(32, Math.max(index*2+2, links.length*2))];
+			System.arraycopy(links, 0, newLinks, 0, links.length);
+			this.links = links = newLinks;
+		}
+
+		links[index*2+1] = value;
+
+		while (true) {
+			long t = top.get();
+			links[index*2] = (int) t;
+			if (top.compareAndSet(t, ((t >>> 32) + 1) << 32 | (index + 1))) return;
+		}
+	}
+}
@@ -4,46 +4,293 @@ import java.util.ArrayList;
 
 /**
  * A light pool of objects that can be resused to avoid allocation.
- * Based on Nathan Sweet pool implementation
+ * Based on Nathan Sweet pool implementation.
+ * <p/>
+ *
+ * Each pooled class exposes its pool (see {@link Tween#getPool()} for
+ * instance), so that you can bound its size, release the objects you don't
+ * need anymore, and check how well it performs. Statistics are:
+ * <p/>
+ *
+ * <b>hits</b>: number of objects reused from the pool<br/>
+ * <b>misses</b>: number of objects created because the pool was empty<br/>
+ * <b>high-water</b>: highest number of objects used at the same time
+ * <p/>
+ *
+ * The high-water mark of a typical session is the number of objects to
+ * create with {@link #prewarm(int)} at startup, so that no allocation happens
+ * afterwards. See {@link TweenUtils#getPoolsProfile()}.
+ * <p/>
+ *
+ * Pools are not thread-safe by default. If you need to create or free
+ * tweens and timelines from several threads, see ThreadSafePools (not
+ * available with GWT).
  */
-abstract class Pool<T> {
+public abstract class Pool<T extends BaseTween<?>> {
 	private final ArrayList<T> objects;
 	private final Callback<T> callback;
+	private int maxSize = Integer.MAX_VALUE;
+	private int lowWater; // smallest size since the last shrink()
+	private ConcurrentStorage<T> concurrent; // replaces the list if not null
+
+	// Statistics
+	private int hits;
+	private int misses;
+	private int usedCnt;
+	private int highWater;
+
+	// Debug
+	static boolean isDebugEnabled = false;
+
+	/**
+	 * Enables or disables the debug mode of every pool. In debug mode, freeing
+	 * an object twice, or using an object once it was freed and while it
+	 * waits in its pool, throws an exception instead of silently corrupting
+	 * the animations of whoever gets the object next. Disabled by default.
+	 * <p/>
+	 *
+	 * Combined with the handles given by {@link TweenManager#getHandle},
+	 * this lets you keep pooling and auto-remove enabled everywhere.
+	 */
+	public static void setDebugEnabled(boolean value) {
+		isDebugEnabled = value;
+	}
+
+	/**
+	 * Returns true if the debug mode of the pools is enabled.
+	 */
+	public static boolean isDebugEnabled() {
+		return isDebugEnabled;
+	}
 
 	protected abstract T create();
 
-	public Pool(int initCapacity, Callback<T> callback) {
+	Pool(int initCapacity, Callback<T> callback) {
 		this.objects = new ArrayList<T>(initCapacity);
 		this.callback = callback;
 	}
 
-	public T get() {
-		T obj = objects.isEmpty() ? create() : objects.remove(objects.size()-1);
+	T get() {
+		T obj = concurrent != null ? concurrent.get() : take();
+		obj.isPooled = false;
 		if (callback != null) callback.onUnPool(obj);
 		return obj;
 	}
 
-	public void free(T obj) {
-		if (!objects.contains(obj)) {
-			if (callback != null) callback.onPool(obj);
-			objects.add(obj);
+	void free(T obj) {
+		if (obj.isPooled) {
+			if (isDebugEnabled) throw new RuntimeException("This tween or timeline was already freed");
+			return;
+		}
+
+		// Reset even the objects dropped by a full pool, since resetting also
+		// releases what they hold outside of the pool
+		obj.isPooled = true;
+		if (callback != null) callback.onPool(obj);
+
+		if (concurrent != null) {
+			concurrent.free(obj);
+			return;
+		}
+
+		usedCnt -= 1;
+		if (objects.size() < maxSize) objects.add(obj);
+	}
+
+	private T take() {
+		T obj;
+
+		if (objects.isEmpty()) {
+			obj = create();
+			misses += 1;
+			TweenTracer tracer = TweenTracer.current;
+			if (tracer != null) tracer.onPoolExhausted(this, obj);
+		} else {
+			obj = objects.remove(objects.size()-1);
+			hits += 1;
+			lowWater = Math.min(lowWater, objects.size());
 		}
+
+		usedCnt += 1;
+		highWater = Math.max(highWater, usedCnt);
+		return obj;
 	}
 
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Removes every object from the pool.
+	 */
 	public void clear() {
-		objects.clear();
+		trim(0);
 	}
 
+	/**
+	 * Gets the number of objects waiting in the pool.
+	 */
 	public int size() {
+		if (concurrent != null) return concurrent.size();
 		return objects.size();
 	}
 
+	/**
+	 * Increases the minimum capacity of the pool.
+	 */
 	public void ensureCapacity(int minCapacity) {
 		objects.ensureCapacity(minCapacity);
 	}
 
-	public interface Callback<T> {
+	/**
+	 * Limits the number of objects kept by the pool. Once this size is
+	 * reached, freed objects are left to the garbage collector. Objects in
+	 * excess are released right away. Defaults to no limit.
+	 */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = Math.max(maxSize, 0);
+		trim(this.maxSize);
+	}
+
+	/**
+	 * Gets the maximum number of objects kept by the pool.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Releases objects until the pool holds no more than the given number of
+	 * them, and shrinks its storage accordingly.
+	 */
+	public void trim(int size) {
+		if (concurrent != null) {
+			concurrent.trim(size);
+			return;
+		}
+
+		for (int i=objects.size()-1; i>=size; i--) objects.remove(i);
+
+		objects.trimToSize();
+		lowWater = Math.min(lowWater, objects.size());
+	}
+
+	/**
+	 * Releases the objects that stayed idle in the pool since the previous
+	 * call, i.e. the part of the pool that was never needed in the meantime.
+	 * Calling this periodically, for instance every few seconds or on every
+	 * level change, gives back the memory of past allocation bursts while
+	 * keeping what the current workload uses.
+	 */
+	public void shrink() {
+		if (concurrent != null) {
+			concurrent.shrink();
+			return;
+		}
+
+		trim(objects.size() - lowWater);
+		lowWater = objects.size();
+	}
+
+	/**
+	 * Fills the pool with new objects, until it holds at least the given
+	 * number of them (bounded by the maximum size). Use it at startup to avoid
+	 * allocations later on.
+	 */
+	public void prewarm(int size) {
+		size = Math.min(size, maxSize);
+
+		if (concurrent != null) {
+			concurrent.prewarm(size);
+			return;
+		}
+
+		objects.ensureCapacity(size);
+		while (objects.size() < size) objects.add(createPooled());
+	}
+
+	/**
+	 * Gets the number of objects that were reused from the pool.
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of objects that had to be created since the pool was
+	 * empty.
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the highest number of objects that were in use at the same time.
+	 */
+	public int getHighWater() {
+		return highWater;
+	}
+
+	/**
+	 * Resets the hits, misses and high-water statistics.
+	 */
+	public void resetStatistics() {
+		hits = misses = 0;
+		highWater = usedCnt;
+	}
+
+	// -------------------------------------------------------------------------
+	// Thread-safe storage
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Replaces the list of pooled objects by a thread-safe storage. Objects
+	 * already in the pool are moved to the new storage.
+	 */
+	void setConcurrentStorage(ConcurrentStorage<T> storage) {
+		if (concurrent != null) throw new RuntimeException("The pool is already thread-safe");
+		concurrent = storage;
+		for (int i=objects.size()-1; i>=0; i--) storage.store(objects.remove(i));
+		objects.trimToSize();
+	}
+
+	boolean isConcurrent() {
+		return concurrent != null;
+	}
+
+	/**
+	 * Creates an object ready to be stored in the pool.
+	 */
+	T createPooled() {
+		T obj = create();
+		if (callback != null) callback.onPool(obj);
+		obj.isPooled = true;
+		return obj;
+	}
+
+	/**
+	 * Used by thread-safe storages, which gather their statistics per thread
+	 * and report them in batches.
+	 */
+	synchronized void addStatistics(int hits, int misses, int usedCnt) {
+		this.hits += hits;
+		this.misses += misses;
+		this.usedCnt += usedCnt;
+		this.highWater = Math.max(highWater, this.usedCnt);
+	}
+
+	abstract static class ConcurrentStorage<T> {
+		abstract T get();
+		abstract void free(T obj);
+		abstract void store(T obj);
+		abstract int size();
+		abstract void trim(int size);
+		abstract void shrink();
+		abstract void prewarm(int size);
+	}
+
+	interface Callback<T> {
 		public void onPool(T obj);
 		public void onUnPool(T obj);
 	}
-}
\ No newline at end of file
+}
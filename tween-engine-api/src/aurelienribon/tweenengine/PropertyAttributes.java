@@ -0,0 +1,279 @@
+package aurelienribon.tweenengine;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the names given to {@link Tween#to(Object, String, float)} into
+ * attributes reading and writing the fields or bean properties of a class.
+ * Names are resolved once per class and list of names: the attributes are
+ * cached and shared by every tween.
+ * <p/>
+ *
+ * Fields are accessed through java.lang.reflect.Field primitive accessors,
+ * which don't allocate. Bean properties (getter and setter) are called
+ * through Method.invoke(), which boxes the values. Both stay slower than a
+ * TweenAccessor: in PropertyBenchmark (see baseline.txt), a frame of "x,y"
+ * tweens takes about 1.7 times as long through fields, and 2 times through
+ * bean properties. Creating the tweens is faster by name, since the
+ * attributes are cached. A GWT version, which can't resolve anything,
+ * is found in the "emu" folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class PropertyAttributes {
+	// Replaced, never modified, once published (see TweenEngine.registeredAccessors)
+	private static volatile Map<Class<?>, Map<String, TweenAttribute<Object>>> cache = new HashMap<Class<?>, Map<String, TweenAttribute<Object>>>();
+	private static final Object cacheLock = new Object();
+
+	static TweenAttribute<Object> get(Class<?> type, String properties) {
+		Map<String, TweenAttribute<Object>> attributes = cache.get(type);
+		TweenAttribute<Object> attribute = attributes != null ? attributes.get(properties) : null;
+		if (attribute != null) return attribute;
+
+		attribute = resolve(type, properties);
+
+		synchronized (cacheLock) {
+			Map<Class<?>, Map<String, TweenAttribute<Object>>> newCache = new HashMap<Class<?>, Map<String, TweenAttribute<Object>>>(cache);
+			attributes = newCache.get(type);
+			attributes = attributes != null
+				? new HashMap<String, TweenAttribute<Object>>(attributes)
+				: new HashMap<String, TweenAttribute<Object>>();
+			attributes.put(properties, attribute);
+			newCache.put(type, attributes);
+			cache = newCache;
+		}
+
+		return attribute;
+	}
+
+	// -------------------------------------------------------------------------
+	// Resolution
+	// -------------------------------------------------------------------------
+
+	private static TweenAttribute<Object> resolve(Class<?> type, String properties) {
+		String[] names = properties.split(",");
+		Property[] props = new Property[names.length];
+
+		for (int i=0; i<names.length; i++) {
+			String name = names[i].trim();
+			if (name.length() == 0) throw new RuntimeException("Invalid property list: \"" + properties + "\"");
+
+			props[i] = findField(type, name);
+			if (props[i] == null) props[i] = findBeanProperty(type, name);
+			if (props[i] == null) throw new RuntimeException("No numeric field or property named \""
+				+ name + "\" was found in " + type.getName());
+		}
+
+		return props.length == 1 ? new SingleAttribute(props[0]) : new MultipleAttribute(props);
+	}
+
+	private static Property findField(Class<?> type, String name) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			Field field;
+			try {
+				field = c.getDeclaredField(name);
+			} catch (NoSuchFieldException ex) {
+				continue;
+			}
+
+			int mod = field.getModifiers();
+			if (Modifier.isStatic(mod) || Modifier.isFinal(mod)) return null;
+			if (!Modifier.isPublic(mod) || !Modifier.isPublic(c.getModifiers())) field.setAccessible(true);
+
+			Class<?> t = field.getType();
+			if (t == float.class) return new FloatField(field);
+			if (t == double.class) return new DoubleField(field);
+			if (t == int.class) return new IntField(field);
+			if (t == long.class) return new LongField(field);
+			if (t == short.class) return new ShortField(field);
+			if (t == byte.class) return new ByteField(field);
+			return null;
+		}
+		return null;
+	}
+
+	private static Property findBeanProperty(Class<?> type, String name) {
+		String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		Method getter, setter = null;
+
+		try {
+			getter = type.getMethod("get" + suffix);
+		} catch (NoSuchMethodException ex) {
+			return null;
+		}
+
+		Class<?> t = getter.getReturnType();
+		if (!isNumber(t)) return null;
+
+		try {
+			setter = type.getMethod("set" + suffix, t);
+		} catch (NoSuchMethodException ex) {
+			return null;
+		}
+
+		return new BeanProperty(getter, setter, t);
+	}
+
+	private static boolean isNumber(Class<?> t) {
+		return t == float.class || t == double.class || t == int.class
+			|| t == long.class || t == short.class || t == byte.class;
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private static final class SingleAttribute extends TweenAttribute<Object> {
+		private final Property prop;
+
+		SingleAttribute(Property prop) {
+			super(1);
+			this.prop = prop;
+		}
+
+		@Override
+		public void getValues(Object target, float[] returnValues) {
+			returnValues[0] = prop.get(target);
+		}
+
+		@Override
+		public void setValues(Object target, float[] newValues) {
+			prop.set(target, newValues[0]);
+		}
+	}
+
+	private static final class MultipleAttribute extends TweenAttribute<Object> {
+		private final Property[] props;
+
+		MultipleAttribute(Property[] props) {
+			super(props.length);
+			this.props = props;
+		}
+
+		@Override
+		public void getValues(Object target, float[] returnValues) {
+			for (int i=0; i<props.length; i++) returnValues[i] = props[i].get(target);
+		}
+
+		@Override
+		public void setValues(Object target, float[] newValues) {
+			for (int i=0; i<props.length; i++) props[i].set(target, newValues[i]);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Properties
+	// -------------------------------------------------------------------------
+
+	private abstract static class Property {
+		abstract float get(Object target);
+		abstract void set(Object target, float value);
+	}
+
+	private abstract static class FieldProperty extends Property {
+		final Field field;
+
+		FieldProperty(Field field) {
+			this.field = field;
+		}
+
+		@Override
+		final float get(Object target) {
+			try {
+				return read(target);
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+
+		@Override
+		final void set(Object target, float value) {
+			try {
+				write(target, value);
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+
+		abstract float read(Object target) throws IllegalAccessException;
+		abstract void write(Object target, float value) throws IllegalAccessException;
+	}
+
+	private static final class FloatField extends FieldProperty {
+		FloatField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return field.getFloat(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setFloat(target, value);}
+	}
+
+	private static final class DoubleField extends FieldProperty {
+		DoubleField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return (float) field.getDouble(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setDouble(target, value);}
+	}
+
+	private static final class IntField extends FieldProperty {
+		IntField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return field.getInt(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setInt(target, Math.round(value));}
+	}
+
+	private static final class LongField extends FieldProperty {
+		LongField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return field.getLong(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setLong(target, Math.round((double) value));}
+	}
+
+	private static final class ShortField extends FieldProperty {
+		ShortField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return field.getShort(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setShort(target, (short) Math.round(value));}
+	}
+
+	private static final class ByteField extends FieldProperty {
+		ByteField(Field field) {super(field);}
+		@Override float read(Object target) throws IllegalAccessException {return field.getByte(target);}
+		@Override void write(Object target, float value) throws IllegalAccessException {field.setByte(target, (byte) Math.round(value));}
+	}
+
+	private static final class BeanProperty extends Property {
+		private final Method getter;
+		private final Method setter;
+		private final Class<?> type;
+
+		BeanProperty(Method getter, Method setter, Class<?> type) {
+			this.getter = getter;
+			this.setter = setter;
+			this.type = type;
+		}
+
+		@Override
+		float get(Object target) {
+			try {
+				return ((Number) getter.invoke(target)).floatValue();
+			} catch (Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+
+		@Override
+		void set(Object target, float value) {
+			Object arg;
+			if (type == float.class) arg = Float.valueOf(value);
+			else if (type == double.class) arg = Double.valueOf(value);
+			else if (type == int.class) arg = Integer.valueOf(Math.round(value));
+			else if (type == long.class) arg = Long.valueOf(Math.round((double) value));
+			else if (type == short.class) arg = Short.valueOf((short) Math.round(value));
+			else arg = Byte.valueOf((byte) Math.round(value));
+
+			try {
+				setter.invoke(target, arg);
+			} catch (Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+}
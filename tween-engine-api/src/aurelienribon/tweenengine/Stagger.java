@@ -0,0 +1,682 @@
+package aurelienribon.tweenengine;
+
+import aurelienribon.tweenengine.equations.Quad;
+
+/**
+ * A Stagger applies a single interpolation to a whole array of targets, each
+ * target being delayed by an offset depending on its index. It replaces a
+ * {@link Timeline} made of one Tween per target: there is only one object to
+ * create, update and free, whatever the number of targets, and callbacks,
+ * delays and repetitions are handled once for the whole group.
+ * <p/>
+ *
+ * The following example fades in a grid of cells, each cell starting 5ms
+ * after the previous one:
+ * <br/><br/>
+ *
+ * <pre> {@code
+ * Stagger.to(cells, OPACITY, 0.5f)
+ *      .target(1)
+ *      .offset(0.005f)
+ *      .ease(Quad.OUT)
+ *      .start(myManager);
+ * }</pre>
+ *
+ * Every target is animated with the TweenAccessor resolved from the first
+ * one (or from the class given to {@link #cast(Class)}). The starting values
+ * of all the targets are retrieved when the group begins, after its delay.
+ * The targets array is not copied and should not be modified while the group
+ * is running.
+ *
+ * @see Tween
+ * @see Timeline
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class Stagger extends BaseTween<Stagger> {
+	// -------------------------------------------------------------------------
+	// Static -- pool
+	// -------------------------------------------------------------------------
+
+	private static final Pool.Callback<Stagger> poolCallback = new Pool.Callback<Stagger>() {
+		@Override public void onPool(Stagger obj) {obj.reset();}
+		@Override public void onUnPool(Stagger obj) {obj.reset();}
+	};
+
+	static final Pool<Stagger> pool = new Pool<Stagger>(5, poolCallback) {
+		@Override protected Stagger create() {return new Stagger();}
+	};
+
+	/**
+	 * Used for debug purpose. Gets the current number of objects that are
+	 * waiting in the Stagger pool.
+	 */
+	public static int getPoolSize() {
+		return pool.size();
+	}
+
+	/**
+	 * Increases the minimum capacity of the pool. Capacity defaults to 5.
+	 */
+	public static void ensurePoolCapacity(int minCapacity) {
+		pool.ensureCapacity(minCapacity);
+	}
+
+	/**
+	 * Gets the pool of staggers, in order to bound it, trim it or prewarm it,
+	 * and to get its statistics.
+	 *
+	 * @see Pool
+	 */
+	public static Pool<Stagger> getPool() {
+		return pool;
+	}
+
+	// -------------------------------------------------------------------------
+	// Static -- factories
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Factory creating a new group of standard interpolations. Each target is
+	 * interpolated from its starting values to the values given to one of the
+	 * target() methods.
+	 *
+	 * @param targets The target objects of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation of each target.
+	 * @return The generated Stagger.
+	 */
+	public static Stagger to(Object[] targets, int tweenType, float duration) {
+		return to(TweenEngine.getDefault(), targets, tweenType, duration);
+	}
+
+	/**
+	 * Same as {@link #to(Object[], int, float)}, with the accessors and
+	 * limits of the given engine.
+	 *
+	 * @param engine The engine providing the accessors.
+	 * @param targets The target objects of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation of each target.
+	 * @return The generated Stagger.
+	 */
+	public static Stagger to(TweenEngine engine, Object[] targets, int tweenType, float duration) {
+		Stagger stagger = pool.get();
+		stagger.setup(engine, targets, tweenType, duration);
+		return stagger;
+	}
+
+	/**
+	 * Factory creating a new group of reversed interpolations. Each target is
+	 * interpolated from the values given to one of the target() methods to
+	 * its starting values.
+	 *
+	 * @param targets The target objects of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation of each target.
+	 * @return The generated Stagger.
+	 */
+	public static Stagger from(Object[] targets, int tweenType, float duration) {
+		return from(TweenEngine.getDefault(), targets, tweenType, duration);
+	}
+
+	/**
+	 * Same as {@link #from(Object[], int, float)}, with the accessors and
+	 * limits of the given engine.
+	 *
+	 * @param engine The engine providing the accessors.
+	 * @param targets The target objects of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation of each target.
+	 * @return The generated Stagger.
+	 */
+	public static Stagger from(TweenEngine engine, Object[] targets, int tweenType, float duration) {
+		Stagger stagger = pool.get();
+		stagger.setup(engine, targets, tweenType, duration);
+		stagger.isFrom = true;
+		return stagger;
+	}
+
+	// -------------------------------------------------------------------------
+	// Offset functions
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Computes the offset of each target of a Stagger. Offsets are computed
+	 * once, when the Stagger is built. Negative offsets are allowed: the
+	 * smallest one is used as the start of the group.
+	 */
+	public interface Offset {
+		/**
+		 * @param index The index of the target in the targets array.
+		 * @param count The number of targets.
+		 * @return The offset of the target, in the same unit as durations.
+		 */
+		public float compute(int index, int count);
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private static final byte BEFORE = 0;
+	private static final byte RUNNING = 1;
+	private static final byte AFTER = 2;
+
+	// Main
+	private TweenEngine engine;
+	private Object[] targets;
+	private Class<?> targetClass;
+	private TweenAccessor<Object> accessor;
+	private TweenAttribute<Object> attribute;
+	private TweenBuffer.Entry[] entries = new TweenBuffer.Entry[0];
+	private int entriesCnt;
+	private int type;
+	private float tweenDuration;
+	private TweenEquation equation;
+	private Offset offset;
+	private float interval;
+
+	// General
+	private boolean isFrom;
+	private boolean isRelative;
+	private int combinedAttrsCnt;
+
+	// Values
+	private float[] targetValues = new float[0];
+	private float[] startValues = new float[0];
+	private float[] endValues = new float[0];
+	private float[] offsets = new float[0];
+	private byte[] states = new byte[0];
+
+	// Buffers
+	private final TweenAttribute.Adapter adapter = new TweenAttribute.Adapter();
+	private float[] accessorBuffer = new float[0];
+
+	// -------------------------------------------------------------------------
+	// Setup
+	// -------------------------------------------------------------------------
+
+	private Stagger() {
+		reset();
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		tweensCnt = 1;
+
+		for (int i=0; i<entriesCnt; i++) {
+			entries[i].release();
+			entries[i] = null;
+		}
+
+		entriesCnt = 0;
+		engine = null;
+		targets = null;
+		targetClass = null;
+		accessor = null;
+		attribute = null;
+		adapter.set(null, -1);
+		type = -1;
+		tweenDuration = 0;
+		equation = null;
+		offset = null;
+		interval = 0;
+
+		isFrom = isRelative = false;
+		combinedAttrsCnt = 0;
+	}
+
+	private void setup(TweenEngine engine, Object[] targets, int tweenType, float duration) {
+		if (duration < 0) throw new RuntimeException("Duration can't be negative");
+
+		if (targetValues.length != engine.combinedAttrsLimit) {
+			targetValues = new float[engine.combinedAttrsLimit];
+			accessorBuffer = new float[engine.combinedAttrsLimit];
+		}
+
+		this.engine = engine;
+		this.targets = targets;
+		this.targetClass = targets.length > 0 ? engine.findTargetClass(targets[0]) : null;
+		this.type = tweenType;
+		this.tweenDuration = duration;
+		this.equation = Quad.INOUT;
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the easing equation used for every target. Default equation is
+	 * Quad.INOUT.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 * @see Tween#ease(TweenEquation)
+	 */
+	public Stagger ease(TweenEquation easeEquation) {
+		this.equation = easeEquation;
+		return this;
+	}
+
+	/**
+	 * Forces the stagger to use the TweenAccessor registered with the given
+	 * target class.
+	 *
+	 * @param targetClass A class registered with an accessor.
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger cast(Class<?> targetClass) {
+		if (isStarted()) throw new RuntimeException("You can't cast the targets of a stagger once it is started");
+		this.targetClass = targetClass;
+		return this;
+	}
+
+	/**
+	 * Delays each target by a constant interval: the target at index i starts
+	 * i*interval after the first one.
+	 *
+	 * @param interval A positive or negative duration.
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger offset(float interval) {
+		if (isStarted()) throw new RuntimeException("You can't change the offsets of a stagger once it is started");
+		this.offset = null;
+		this.interval = interval;
+		return this;
+	}
+
+	/**
+	 * Delays each target by the offset computed by the given function.
+	 *
+	 * @param offset An Offset implementation.
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger offset(Offset offset) {
+		if (isStarted()) throw new RuntimeException("You can't change the offsets of a stagger once it is started");
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Sets the target value of the interpolation, shared by every target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger target(float targetValue) {
+		targetValues[0] = targetValue;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of the interpolation, shared by every target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger target(float targetValue1, float targetValue2) {
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of the interpolation, shared by every target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger target(float targetValue1, float targetValue2, float targetValue3) {
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		targetValues[2] = targetValue3;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of the interpolation, shared by every target.
+	 * Needs a combined attributes limit of at least 4.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger target(float targetValue1, float targetValue2, float targetValue3, float targetValue4) {
+		if (engine.combinedAttrsLimit < 4) throwCombinedAttrsLimitReached();
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		targetValues[2] = targetValue3;
+		targetValues[3] = targetValue4;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of the interpolation, shared by every target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger target(float... targetValues) {
+		if (targetValues.length > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		System.arraycopy(targetValues, 0, this.targetValues, 0, targetValues.length);
+		return this;
+	}
+
+	/**
+	 * Sets the target value of the interpolation, relatively to the starting
+	 * value of each target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger targetRelative(float targetValue) {
+		isRelative = true;
+		return target(targetValue);
+	}
+
+	/**
+	 * Sets the target values of the interpolation, relatively to the starting
+	 * values of each target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger targetRelative(float targetValue1, float targetValue2) {
+		isRelative = true;
+		return target(targetValue1, targetValue2);
+	}
+
+	/**
+	 * Sets the target values of the interpolation, relatively to the starting
+	 * values of each target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger targetRelative(float targetValue1, float targetValue2, float targetValue3) {
+		isRelative = true;
+		return target(targetValue1, targetValue2, targetValue3);
+	}
+
+	/**
+	 * Sets the target values of the interpolation, relatively to the starting
+	 * values of each target. Needs a combined attributes limit of at least 4.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger targetRelative(float targetValue1, float targetValue2, float targetValue3, float targetValue4) {
+		isRelative = true;
+		return target(targetValue1, targetValue2, targetValue3, targetValue4);
+	}
+
+	/**
+	 * Sets the target values of the interpolation, relatively to the starting
+	 * values of each target.
+	 *
+	 * @return The current stagger, for chaining instructions.
+	 */
+	public Stagger targetRelative(float... targetValues) {
+		isRelative = true;
+		return target(targetValues);
+	}
+
+	// -------------------------------------------------------------------------
+	// Getters
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the target objects. This is the array given to the factory.
+	 */
+	public Object[] getTargets() {
+		return targets;
+	}
+
+	/**
+	 * Gets the type of the interpolation.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the duration of the interpolation of a single target. The
+	 * duration of the whole group, given by {@link #getDuration()}, also
+	 * includes the offsets.
+	 */
+	public float getTweenDuration() {
+		return tweenDuration;
+	}
+
+	/**
+	 * Gets the easing equation.
+	 */
+	public TweenEquation getEasing() {
+		return equation;
+	}
+
+	/**
+	 * Gets the TweenAccessor used with the targets.
+	 */
+	public TweenAccessor<?> getAccessor() {
+		return accessor;
+	}
+
+	// -------------------------------------------------------------------------
+	// Overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public Stagger build() {
+		int n = targets != null ? targets.length : 0;
+		if (n == 0) return this;
+
+		accessor = engine.findAccessor(targets[0], targetClass);
+		attribute = Tween.findAttribute(targets[0], accessor, type, adapter, accessorBuffer);
+		combinedAttrsCnt = attribute.getCount();
+		if (combinedAttrsCnt > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
+
+		// With a buffer, values go to the buffer instead of the targets
+		if (engine.buffer != null && entriesCnt == 0) {
+			if (entries.length < n) entries = new TweenBuffer.Entry[n];
+			for (int i=0; i<n; i++) entries[i] = engine.buffer.acquire(targets[i], accessor, attribute, type, combinedAttrsCnt);
+			entriesCnt = n;
+		}
+
+		if (offsets.length < n) {
+			offsets = new float[n];
+			states = new byte[n];
+		}
+
+		if (startValues.length < n*combinedAttrsCnt) {
+			startValues = new float[n*combinedAttrsCnt];
+			endValues = new float[n*combinedAttrsCnt];
+		}
+
+		float min = 0, max = 0;
+		for (int i=0; i<n; i++) {
+			offsets[i] = offset != null ? offset.compute(i, n) : i*interval;
+			min = i == 0 ? offsets[i] : Math.min(min, offsets[i]);
+			max = i == 0 ? offsets[i] : Math.max(max, offsets[i]);
+		}
+
+		for (int i=0; i<n; i++) offsets[i] -= min;
+		duration = tweenDuration + max - min;
+		return this;
+	}
+
+	@Override
+	public void free() {
+		pool.free(this);
+	}
+
+	@Override
+	protected void initializeOverride() {
+		if (targets == null) return;
+
+		for (int i=0, n=targets.length; i<n; i++) {
+			int idx = i*combinedAttrsCnt;
+			getAttribute(i).getValues(targets[i], accessorBuffer);
+
+			for (int ii=0; ii<combinedAttrsCnt; ii++) {
+				float start = accessorBuffer[ii];
+				float end = isRelative ? start + targetValues[ii] : targetValues[ii];
+				startValues[idx+ii] = isFrom ? end : start;
+				endValues[idx+ii] = isFrom ? start : end;
+			}
+
+			states[i] = BEFORE;
+		}
+	}
+
+	@Override
+	protected void updateOverride(int step, int lastStep, boolean isIterationStep, float delta) {
+		if (targets == null || equation == null) return;
+
+		// Case iteration end has been reached
+
+		if (!isIterationStep && step > lastStep) {
+			setAllValues(isReverse(lastStep) ? BEFORE : AFTER);
+			return;
+		}
+
+		if (!isIterationStep && step < lastStep) {
+			setAllValues(isReverse(lastStep) ? AFTER : BEFORE);
+			return;
+		}
+
+		// Normal behavior
+
+		float time = isReverse(step) ? duration - getCurrentTime() : getCurrentTime();
+
+		for (int i=0, n=targets.length; i<n; i++) {
+			float localTime = time - offsets[i];
+
+			if (localTime < 0) {
+				if (states[i] != BEFORE) setValues(i, BEFORE);
+
+			} else if (localTime >= tweenDuration) {
+				if (states[i] != AFTER) setValues(i, AFTER);
+
+			} else {
+				int idx = i*combinedAttrsCnt;
+				float t = equation.compute(localTime/tweenDuration);
+				for (int ii=0; ii<combinedAttrsCnt; ii++) {
+					float start = startValues[idx+ii];
+					accessorBuffer[ii] = start + t * (endValues[idx+ii] - start);
+				}
+				getAttribute(i).setValues(targets[i], accessorBuffer);
+				states[i] = RUNNING;
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// BaseTween impl.
+	// -------------------------------------------------------------------------
+
+	@Override
+	protected void forceStartValues() {
+		if (targets == null || !isInitialized()) return;
+		setAllValues(BEFORE);
+	}
+
+	@Override
+	protected void forceEndValues() {
+		if (targets == null || !isInitialized()) return;
+		setAllValues(AFTER);
+	}
+
+	@Override
+	protected boolean containsTarget(Object target) {
+		if (targets == null) return false;
+		for (int i=0, n=targets.length; i<n; i++) {
+			if (targets[i] == target) return true;
+		}
+		return false;
+	}
+
+	@Override
+	protected boolean containsTarget(Object target, int tweenType) {
+		return this.type == tweenType && containsTarget(target);
+	}
+
+	// -------------------------------------------------------------------------
+	// Snapshots
+	// -------------------------------------------------------------------------
+
+	@Override
+	void writeState(TweenSnapshot s) {
+		super.writeState(s);
+		int n = targets != null ? targets.length : 0;
+		s.writeInt(n);
+		for (int i=0; i<n; i++) s.writeObject(targets[i]);
+
+		// A target class set by cast() can't be found again from the targets
+		Class<?> defaultClass = n > 0 ? engine.findTargetClass(targets[0]) : null;
+		s.writeObject(targetClass != defaultClass ? targetClass : null);
+
+		s.writeInt(type);
+		s.writeFloat(tweenDuration);
+		s.writeEquation(equation);
+		s.writeByte((isFrom ? 1 : 0) | (isRelative ? 2 : 0));
+		s.writeByte(combinedAttrsCnt);
+		for (int i=0; i<combinedAttrsCnt; i++) s.writeFloat(targetValues[i]);
+		for (int i=0; i<n; i++) s.writeFloat(offsets[i]);
+		for (int i=0, cnt=n*combinedAttrsCnt; i<cnt; i++) s.writeFloat(startValues[i]);
+		for (int i=0, cnt=n*combinedAttrsCnt; i<cnt; i++) s.writeFloat(endValues[i]);
+		for (int i=0; i<n; i++) s.writeByte(states[i]);
+	}
+
+	@Override
+	void readState(TweenSnapshot s) {
+		super.readState(s);
+		float duration = this.duration;
+		Object[] targets = new Object[s.readInt()];
+		for (int i=0; i<targets.length; i++) targets[i] = s.readObject();
+		Class<?> castClass = (Class<?>) s.readObject();
+		int type = s.readInt();
+		float tweenDuration = s.readFloat();
+
+		setup(s.engine, targets, type, tweenDuration);
+		if (castClass != null) targetClass = castClass;
+		equation = s.readEquation();
+		int flags = s.readByte();
+		isFrom = (flags & 1) != 0;
+		isRelative = (flags & 2) != 0;
+
+		int attrsCnt = s.readByte();
+		if (attrsCnt > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		for (int i=0; i<attrsCnt; i++) targetValues[i] = s.readFloat();
+
+		// Offsets are restored rather than computed again by build(), as an
+		// offset function may not give the same ones twice
+		build();
+		if (combinedAttrsCnt != attrsCnt) throw new RuntimeException("The attributes of a stagger in the snapshot don't match its targets anymore");
+		this.duration = duration;
+
+		int n = targets.length;
+		for (int i=0; i<n; i++) offsets[i] = s.readFloat();
+		for (int i=0, cnt=n*attrsCnt; i<cnt; i++) startValues[i] = s.readFloat();
+		for (int i=0, cnt=n*attrsCnt; i<cnt; i++) endValues[i] = s.readFloat();
+		for (int i=0; i<n; i++) states[i] = (byte) s.readByte();
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private TweenAttribute<Object> getAttribute(int i) {
+		return entriesCnt > 0 ? entries[i] : attribute;
+	}
+
+	private void setAllValues(byte state) {
+		for (int i=0, n=targets.length; i<n; i++) setValues(i, state);
+	}
+
+	private void setValues(int i, byte state) {
+		float[] values = state == BEFORE ? startValues : endValues;
+		System.arraycopy(values, i*combinedAttrsCnt, accessorBuffer, 0, combinedAttrsCnt);
+		getAttribute(i).setValues(targets[i], accessorBuffer);
+		states[i] = state;
+	}
+
+	private void throwCombinedAttrsLimitReached() {
+		String msg = "You cannot combine more than " + engine.combinedAttrsLimit + " "
+			+ "attributes in a stagger. You can raise this limit with "
+			+ "TweenEngine.setCombinedAttributesLimit() on the engine of the stagger, "
+			+ "which should be called once in application initialization code.";
+		throw new RuntimeException(msg);
+	}
+}
@@ -0,0 +1,259 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Makes the Tween, Timeline, Stagger and TweenQueue pools thread-safe, so
+ * that tweens and timelines can be created and freed from any thread, for
+ * instance to build timelines on a worker thread while the main thread
+ * updates a TweenManager. Call {@link #enable()} once, in application
+ * initialization code, before other threads use the engine.
+ * <p/>
+ *
+ * Each thread keeps a small cache of objects, so that most calls to
+ * Tween.to() or free() don't touch any shared state. Caches exchange
+ * objects with a shared lock-free stack by batches, when they run empty or
+ * full. In this mode, pool statistics are also reported by batches, and
+ * {@link Pool#size()}, {@link Pool#trim(int)} and {@link Pool#shrink()} only
+ * see the shared stack, not the objects cached by each thread.
+ * <p/>
+ *
+ * Note that only the pools are made thread-safe: a given tween, timeline or
+ * manager must still be used by one thread at a time.
+ * <p/>
+ *
+ * <b>Not available with GWT.</b>
+ *
+ * @see Pool
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class ThreadSafePools {
+	/**
+	 * Switches every pool to thread-safe storage. Objects already pooled are
+	 * kept. Calling it more than once has no effect.
+	 */
+	public static synchronized void enable() {
+		enable(Tween.getPool());
+		enable(Timeline.getPool());
+		enable(Stagger.getPool());
+		enable(TweenQueue.getPool());
+	}
+
+	/**
+	 * Switches the pool of tweens of an engine other than the default one to
+	 * thread-safe storage. The other pools are shared by every engine, and
+	 * are switched by {@link #enable()}.
+	 */
+	public static synchronized void enable(TweenEngine engine) {
+		enable(engine.tweenPool);
+	}
+
+	/**
+	 * Returns true if {@link #enable()} was called.
+	 */
+	public static boolean isEnabled() {
+		return Tween.getPool().isConcurrent();
+	}
+
+	private static <T extends BaseTween<?>> void enable(Pool<T> pool) {
+		if (!pool.isConcurrent()) pool.setConcurrentStorage(new Storage<T>(pool));
+	}
+
+	private ThreadSafePools() {
+	}
+
+	// -------------------------------------------------------------------------
+	// Storage
+	// -------------------------------------------------------------------------
+
+	private static final int BATCH = 32;
+
+	/**
+	 * A batch of pooled objects, chained through their poolNext field.
+	 * Batches are never reused once popped from the shared stack, which keeps
+	 * the stack safe from the ABA problem.
+	 */
+	private static final class Batch {
+		final BaseTween<?> head;
+		final int count;
+		Batch next;
+
+		Batch(BaseTween<?> head, int count) {
+			this.head = head;
+			this.count = count;
+		}
+	}
+
+	private static final class Cache {
+		final BaseTween<?>[] objects = new BaseTween<?>[BATCH*2];
+		int size;
+
+		// Statistics not reported yet
+		int hits;
+		int misses;
+		int usedCnt;
+		int ops;
+	}
+
+	private static final class Storage<T extends BaseTween<?>> extends Pool.ConcurrentStorage<T> {
+		private final Pool<T> pool;
+		private final AtomicReference<Batch> top = new AtomicReference<Batch>();
+		private final AtomicInteger sharedSize = new AtomicInteger();
+		private volatile int lowWater; // smallest shared size since the last shrink()
+
+		private final ThreadLocal<Cache> caches = new ThreadLocal<Cache>() {
+			@Override protected Cache initialValue() {return new Cache();}
+		};
+
+		Storage(Pool<T> pool) {
+			this.pool = pool;
+		}
+
+		@Override
+		T get() {
+			Cache cache = caches.get();
+			T obj;
+
+			if (cache.size == 0 && !pull(cache)) {
+				obj = pool.create();
+				cache.misses += 1;
+				TweenTracer tracer = TweenTracer.current;
+				if (tracer != null) tracer.onPoolExhausted(pool, obj);
+			} else {
+				obj = pop(cache);
+				cache.hits += 1;
+			}
+
+			cache.usedCnt += 1;
+			if (++cache.ops == BATCH) report(cache);
+			return obj;
+		}
+
+		@Override
+		void free(T obj) {
+			Cache cache = caches.get();
+			if (cache.size == cache.objects.length) push(cache);
+			cache.objects[cache.size++] = obj;
+
+			cache.usedCnt -= 1;
+			if (++cache.ops == BATCH) report(cache);
+		}
+
+		@Override
+		void store(T obj) {
+			obj.poolNext = null;
+			pushBatch(new Batch(obj, 1));
+		}
+
+		@Override
+		int size() {
+			return sharedSize.get();
+		}
+
+		@Override
+		void trim(int size) {
+			while (sharedSize.get() > size) {
+				if (popBatch() == null) break;
+			}
+			lowWater = Math.min(lowWater, sharedSize.get());
+		}
+
+		@Override
+		void shrink() {
+			trim(sharedSize.get() - lowWater);
+			lowWater = sharedSize.get();
+		}
+
+		@Override
+		void prewarm(int size) {
+			while (sharedSize.get() < size) {
+				int count = Math.min(BATCH, size - sharedSize.get());
+				BaseTween<?> head = null;
+
+				for (int i=0; i<count; i++) {
+					T obj = pool.createPooled();
+					obj.poolNext = head;
+					head = obj;
+				}
+
+				pushBatch(new Batch(head, count));
+			}
+		}
+
+		// ---------------------------------------------------------------------
+
+		private void report(Cache cache) {
+			pool.addStatistics(cache.hits, cache.misses, cache.usedCnt);
+			cache.hits = cache.misses = cache.usedCnt = cache.ops = 0;
+		}
+
+		// The caches of a storage only hold objects of its own pool
+		@SuppressWarnings("unchecked")
+		private T pop(Cache cache) {
+			cache.size -= 1;
+			T obj = (T) cache.objects[cache.size];
+			cache.objects[cache.size] = null;
+			return obj;
+		}
+
+		/**
+		 * Moves half of a full cache to the shared stack, or drops it if the
+		 * pool is already at its maximum size.
+		 */
+		private void push(Cache cache) {
+			BaseTween<?> head = null;
+
+			for (int i=0; i<BATCH; i++) {
+				cache.size -= 1;
+				BaseTween<?> obj = cache.objects[cache.size];
+				cache.objects[cache.size] = null;
+				obj.poolNext = head;
+				head = obj;
+			}
+
+			if (sharedSize.get() + BATCH <= pool.getMaxSize()) pushBatch(new Batch(head, BATCH));
+		}
+
+		/**
+		 * Fills an empty cache with a batch from the shared stack. Returns
+		 * false if the stack is empty.
+		 */
+		private boolean pull(Cache cache) {
+			Batch batch = popBatch();
+			if (batch == null) return false;
+
+			BaseTween<?> obj = batch.head;
+			while (obj != null) {
+				BaseTween<?> next = obj.poolNext;
+				obj.poolNext = null;
+				cache.objects[cache.size++] = obj;
+				obj = next;
+			}
+
+			return true;
+		}
+
+		private void pushBatch(Batch batch) {
+			Batch head;
+			do {
+				head = top.get();
+				batch.next = head;
+			} while (!top.compareAndSet(head, batch));
+
+			sharedSize.addAndGet(batch.count);
+		}
+
+		private Batch popBatch() {
+			Batch head;
+			do {
+				head = top.get();
+				if (head == null) return null;
+			} while (!top.compareAndSet(head, head.next));
+
+			int size = sharedSize.addAndGet(-head.count);
+			if (size < lowWater) lowWater = size;
+			return head;
+		}
+	}
+}
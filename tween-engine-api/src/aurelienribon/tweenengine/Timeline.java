@@ -72,6 +72,16 @@ public final class Timeline extends BaseTween<Timeline> {
 		pool.ensureCapacity(minCapacity);
 	}
 
+	/**
+	 * Gets the pool of timelines, in order to bound it, trim it or prewarm it,
+	 * and to get its statistics.
+	 *
+	 * @see Pool
+	 */
+	public static Pool<Timeline> getPool() {
+		return pool;
+	}
+
 	// -------------------------------------------------------------------------
 	// Static -- factories
 	// -------------------------------------------------------------------------
@@ -103,8 +113,9 @@ public final class Timeline extends BaseTween<Timeline> {
 	private enum Modes {SEQUENCE, PARALLEL}
 
 	private final List<BaseTween<?>> children = new ArrayList<BaseTween<?>>(10);
+	private final List<BaseTween<?>> childrenView = Collections.unmodifiableList(children);
+	private boolean isForcedForward; // direction of the children being forced, see forceValues()
 	private Timeline current;
-	private Timeline parent;
 	private Modes mode;
 	private boolean isBuilt;
 
@@ -119,9 +130,10 @@ public final class Timeline extends BaseTween<Timeline> {
 	@Override
 	protected void reset() {
 		super.reset();
+		timelinesCnt = 1;
 
 		children.clear();
-		current = parent = null;
+		current = null;
 
 		isBuilt = false;
 	}
@@ -142,7 +154,18 @@ public final class Timeline extends BaseTween<Timeline> {
 	 */
 	public Timeline push(Tween tween) {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
-		current.children.add(tween);
+		current.addChild(tween);
+		return this;
+	}
+
+	/**
+	 * Adds a Stagger to the current timeline.
+	 *
+	 * @return The current timeline, for chaining instructions.
+	 */
+	public Timeline push(Stagger stagger) {
+		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		current.addChild(stagger);
 		return this;
 	}
 
@@ -154,8 +177,7 @@ public final class Timeline extends BaseTween<Timeline> {
 	public Timeline push(Timeline timeline) {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		if (timeline.current != timeline) throw new RuntimeException("You forgot to call a few 'end()' statements in your pushed timeline");
-		timeline.parent = current;
-		current.children.add(timeline);
+		current.addChild(timeline);
 		return this;
 	}
 
@@ -168,7 +190,7 @@ public final class Timeline extends BaseTween<Timeline> {
 	 */
 	public Timeline pushPause(float time) {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
-		current.children.add(Tween.mark().delay(time));
+		current.addChild(Tween.mark().delay(time));
 		return this;
 	}
 
@@ -181,9 +203,8 @@ public final class Timeline extends BaseTween<Timeline> {
 	public Timeline beginSequence() {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		Timeline tl = pool.get();
-		tl.parent = current;
 		tl.mode = Modes.SEQUENCE;
-		current.children.add(tl);
+		current.addChild(tl);
 		current = tl;
 		return this;
 	}
@@ -197,9 +218,8 @@ public final class Timeline extends BaseTween<Timeline> {
 	public Timeline beginParallel() {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		Timeline tl = pool.get();
-		tl.parent = current;
 		tl.mode = Modes.PARALLEL;
-		current.children.add(tl);
+		current.addChild(tl);
 		current = tl;
 		return this;
 	}
@@ -212,16 +232,17 @@ public final class Timeline extends BaseTween<Timeline> {
 	public Timeline end() {
 		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		if (current == this) throw new RuntimeException("Nothing to end...");
-		current = current.parent;
+		current = (Timeline) current.container;
 		return this;
 	}
 
 	/**
 	 * Gets a list of the timeline children. If the timeline is started, the
-	 * list will be immutable.
+	 * list will be immutable. Neither list is a copy, so getting it does not
+	 * allocate anything.
 	 */
 	public List<BaseTween<?>> getChildren() {
-		if (isBuilt) return Collections.unmodifiableList(current.children);
+		if (isBuilt) return childrenView;
 		else return current.children;
 	}
 
@@ -233,6 +254,8 @@ public final class Timeline extends BaseTween<Timeline> {
 	public Timeline build() {
 		if (isBuilt) return this;
 
+		TweenTracer tracer = TweenTracer.current;
+		Object trace = tracer != null ? tracer.beginBuild(this) : null;
 		duration = 0;
 
 		for (int i=0; i<children.size(); i++) {
@@ -255,6 +278,7 @@ public final class Timeline extends BaseTween<Timeline> {
 		}
 
 		isBuilt = true;
+		if (tracer != null) tracer.endBuild(trace, this);
 		return this;
 	}
 
@@ -272,12 +296,33 @@ public final class Timeline extends BaseTween<Timeline> {
 
 	@Override
 	public void free() {
-		for (int i=children.size()-1; i>=0; i--) {
-			BaseTween<?> obj = children.remove(i);
-			obj.free();
-		}
+		Timeline tl = this;
+		int position = 0;
+
+		loop: while (true) {
+			List<BaseTween<?>> objs = tl.children;
 
-		pool.free(this);
+			while (position < objs.size()) {
+				BaseTween<?> obj = objs.get(position);
+				position += 1;
+
+				if (obj instanceof Timeline) {
+					tl = (Timeline) obj;
+					position = 0;
+					continue loop;
+				}
+
+				obj.free();
+			}
+
+			// Every child is freed: the timeline can be reset, once its place
+			// in its container is known
+			Timeline container = tl == this ? null : (Timeline) tl.container;
+			position = tl.childIndex + 1;
+			pool.free(tl);
+			if (container == null) return;
+			tl = container;
+		}
 	}
 
 	@Override
@@ -329,35 +374,136 @@ public final class Timeline extends BaseTween<Timeline> {
 
 	@Override
 	protected void forceStartValues() {
-		for (int i=children.size()-1; i>=0; i--) {
-			BaseTween<?> obj = children.get(i);
-			obj.forceToStart();
-		}
+		forceValues(this, false);
 	}
 
 	@Override
 	protected void forceEndValues() {
-		for (int i=0, n=children.size(); i<n; i++) {
-			BaseTween<?> obj = children.get(i);
-			obj.forceToEnd(duration);
-		}
+		forceValues(this, true);
 	}
 
 	@Override
 	protected boolean containsTarget(Object target) {
-		for (int i=0, n=children.size(); i<n; i++) {
-			BaseTween<?> obj = children.get(i);
-			if (obj.containsTarget(target)) return true;
-		}
-		return false;
+		return containsTarget(target, -1, false);
 	}
 
 	@Override
 	protected boolean containsTarget(Object target, int tweenType) {
+		return containsTarget(target, tweenType, true);
+	}
+
+	// -------------------------------------------------------------------------
+	// Snapshots
+	// -------------------------------------------------------------------------
+
+	@Override
+	void writeState(TweenSnapshot s) {
+		super.writeState(s);
+		s.writeByte(mode == Modes.SEQUENCE ? 0 : 1);
+	}
+
+	@Override
+	void readState(TweenSnapshot s) {
+		super.readState(s);
+		mode = s.readByte() == 0 ? Modes.SEQUENCE : Modes.PARALLEL;
+		current = this;
+		isBuilt = true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	void addChild(BaseTween<?> obj) {
+		obj.checkNotFreed();
+		obj.container = this;
+		obj.childIndex = children.size();
+		children.add(obj);
+		updateCounts(obj.tweensCnt, obj.timelinesCnt);
+	}
+
+	// Nested timelines are walked iteratively rather than through recursive
+	// calls, so that deep trees can't overflow the call stack. No stack is
+	// needed either: once its children are walked, a timeline leads back to
+	// its next sibling through its container and its childIndex.
+
+	private boolean containsTarget(Object target, int tweenType, boolean checkType) {
+		Timeline tl = this;
+		int position = 0;
+
+		loop: while (true) {
+			List<BaseTween<?>> objs = tl.children;
+
+			for (int n=objs.size(); position<n; position++) {
+				BaseTween<?> obj = objs.get(position);
+
+				if (obj instanceof Timeline) {
+					// Timelines without nested ones, the most common, are
+					// searched without walking down and back up
+					Timeline child = (Timeline) obj;
+					if (child.timelinesCnt == 1) {
+						if (child.childrenContainTarget(target, tweenType, checkType)) return true;
+						continue;
+					}
+					tl = child;
+					position = 0;
+					continue loop;
+				}
+
+				if (checkType ? obj.containsTarget(target, tweenType) : obj.containsTarget(target)) return true;
+			}
+
+			if (tl == this) return false;
+			position = tl.childIndex + 1;
+			tl = (Timeline) tl.container;
+		}
+	}
+
+	// Only called on timelines without any nested timeline
+	private boolean childrenContainTarget(Object target, int tweenType, boolean checkType) {
 		for (int i=0, n=children.size(); i<n; i++) {
 			BaseTween<?> obj = children.get(i);
-			if (obj.containsTarget(target, tweenType)) return true;
+			if (checkType ? obj.containsTarget(target, tweenType) : obj.containsTarget(target)) return true;
 		}
 		return false;
 	}
+
+	/**
+	 * Equivalent to calling forceToStart() or forceToEnd() on every child,
+	 * descendants included, in the order of the recursive implementation:
+	 * backwards when forcing the start values, forwards for the end values.
+	 */
+	private void forceValues(Timeline timeline, boolean toEnd) {
+		Timeline tl = timeline;
+		int position = 0;
+		tl.isForcedForward = toEnd;
+
+		loop: while (true) {
+			List<BaseTween<?>> objs = tl.children;
+			boolean isForward = tl.isForcedForward;
+			int n = objs.size();
+
+			while (position < n) {
+				BaseTween<?> obj = objs.get(isForward ? position : n-1-position);
+				position += 1;
+
+				if (obj instanceof Timeline) {
+					// A yoyo timeline may end on its start values: its whole
+					// subtree is then forced to start, before the next siblings.
+					tl = (Timeline) obj;
+					tl.isForcedForward = isForward ? tl.forceStepToEnd(tl.container.duration) : tl.forceStepToStart();
+					position = 0;
+					continue loop;
+				}
+
+				if (isForward) obj.forceToEnd(tl.duration);
+				else obj.forceToStart();
+			}
+
+			if (tl == timeline) return;
+			Timeline container = (Timeline) tl.container;
+			position = container.isForcedForward ? tl.childIndex + 1 : container.children.size() - tl.childIndex;
+			tl = container;
+		}
+	}
 }
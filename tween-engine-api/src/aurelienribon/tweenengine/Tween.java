@@ -1,8 +1,6 @@
 package aurelienribon.tweenengine;
 
 import aurelienribon.tweenengine.equations.Quad;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Core class of the Tween Engine. A Tween is basically an interpolation
@@ -87,23 +85,24 @@ public final class Tween extends BaseTween<Tween> {
 	 */
 	public static final int INFINITY = -1;
 
-	private static int combinedAttrsLimit = 3;
-	private static int waypointsLimit = 0;
-
 	/**
-	 * Changes the limit for combined attributes. Defaults to 3 to reduce
-	 * memory footprint.
+	 * Changes the limit for combined attributes of the default engine.
+	 * Defaults to 3 to reduce memory footprint.
+	 *
+	 * @see TweenEngine#setCombinedAttributesLimit(int)
 	 */
 	public static void setCombinedAttributesLimit(int limit) {
-		Tween.combinedAttrsLimit = limit;
+		TweenEngine.getDefault().setCombinedAttributesLimit(limit);
 	}
 
 	/**
-	 * Changes the limit of allowed waypoints for each tween. Defaults to 0 to
-	 * reduce memory footprint.
+	 * Changes the limit of allowed waypoints for each tween of the default
+	 * engine. Defaults to 0 to reduce memory footprint.
+	 *
+	 * @see TweenEngine#setWaypointsLimit(int)
 	 */
 	public static void setWaypointsLimit(int limit) {
-		Tween.waypointsLimit = limit;
+		TweenEngine.getDefault().setWaypointsLimit(limit);
 	}
 
 	/**
@@ -117,56 +116,63 @@ public final class Tween extends BaseTween<Tween> {
 	// Static -- pool
 	// -------------------------------------------------------------------------
 
-	private static final Pool.Callback<Tween> poolCallback = new Pool.Callback<Tween>() {
+	static final Pool.Callback<Tween> poolCallback = new Pool.Callback<Tween>() {
 		@Override public void onPool(Tween obj) {obj.reset();}
 		@Override public void onUnPool(Tween obj) {obj.reset();}
 	};
 
-	private static final Pool<Tween> pool = new Pool<Tween>(20, poolCallback) {
-		@Override protected Tween create() {return new Tween();}
-	};
-
 	/**
 	 * Used for debug purpose. Gets the current number of objects that are
-	 * waiting in the Tween pool.
+	 * waiting in the Tween pool of the default engine.
 	 */
 	public static int getPoolSize() {
-		return pool.size();
+		return getPool().size();
 	}
 
 	/**
-	 * Increases the minimum capacity of the pool. Capacity defaults to 20.
+	 * Increases the minimum capacity of the pool of the default engine.
+	 * Capacity defaults to 20.
 	 */
 	public static void ensurePoolCapacity(int minCapacity) {
-		pool.ensureCapacity(minCapacity);
+		getPool().ensureCapacity(minCapacity);
+	}
+
+	/**
+	 * Gets the pool of tweens of the default engine, in order to bound it,
+	 * trim it or prewarm it, and to get its statistics.
+	 *
+	 * @see Pool
+	 */
+	public static Pool<Tween> getPool() {
+		return TweenEngine.getDefault().tweenPool;
 	}
 
 	// -------------------------------------------------------------------------
 	// Static -- tween accessors
 	// -------------------------------------------------------------------------
 
-	private static final Map<Class<?>, TweenAccessor<?>> registeredAccessors = new HashMap<Class<?>, TweenAccessor<?>>();
-
 	/**
-	 * Registers an accessor with the class of an object. This accessor will be
-	 * used by tweens applied to every objects implementing the registered
-	 * class, or inheriting from it.
+	 * Registers an accessor with the class of an object, in the default
+	 * engine. This accessor will be used by tweens applied to every objects
+	 * implementing the registered class or interface, or inheriting from it.
 	 *
-	 * @param someClass An object class.
+	 * @param someClass An object class or interface.
 	 * @param defaultAccessor The accessor that will be used to tween any
 	 * object of class "someClass".
+	 * @see TweenEngine#registerAccessor(Class, TweenAccessor)
 	 */
 	public static void registerAccessor(Class<?> someClass, TweenAccessor<?> defaultAccessor) {
-		registeredAccessors.put(someClass, defaultAccessor);
+		TweenEngine.getDefault().registerAccessor(someClass, defaultAccessor);
 	}
 
 	/**
-	 * Gets the registered TweenAccessor associated with the given object class.
+	 * Gets the TweenAccessor registered in the default engine with the given
+	 * object class.
 	 *
 	 * @param someClass An object class.
 	 */
 	public static TweenAccessor<?> getRegisteredAccessor(Class<?> someClass) {
-		return registeredAccessors.get(someClass);
+		return TweenEngine.getDefault().getRegisteredAccessor(someClass);
 	}
 
 	// -------------------------------------------------------------------------
@@ -205,7 +211,21 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The generated Tween.
 	 */
 	public static Tween to(Object target, int tweenType, float duration) {
-		Tween tween = pool.get();
+		return to(TweenEngine.getDefault(), target, tweenType, duration);
+	}
+
+	/**
+	 * Same as {@link #to(Object, int, float)}, with the accessors, limits and
+	 * pool of the given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween to(TweenEngine engine, Object target, int tweenType, float duration) {
+		Tween tween = engine.tweenPool.get();
 		tween.setup(target, tweenType, duration);
 		tween.ease(Quad.INOUT);
 		tween.path(TweenPaths.catmullRom);
@@ -243,7 +263,21 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The generated Tween.
 	 */
 	public static Tween from(Object target, int tweenType, float duration) {
-		Tween tween = pool.get();
+		return from(TweenEngine.getDefault(), target, tweenType, duration);
+	}
+
+	/**
+	 * Same as {@link #from(Object, int, float)}, with the accessors, limits
+	 * and pool of the given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween from(TweenEngine engine, Object target, int tweenType, float duration) {
+		Tween tween = engine.tweenPool.get();
 		tween.setup(target, tweenType, duration);
 		tween.ease(Quad.INOUT);
 		tween.path(TweenPaths.catmullRom);
@@ -281,12 +315,134 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The generated Tween.
 	 */
 	public static Tween set(Object target, int tweenType) {
-		Tween tween = pool.get();
+		return set(TweenEngine.getDefault(), target, tweenType);
+	}
+
+	/**
+	 * Same as {@link #set(Object, int)}, with the accessors, limits and pool
+	 * of the given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param tweenType The desired type of interpolation.
+	 * @return The generated Tween.
+	 */
+	public static Tween set(TweenEngine engine, Object target, int tweenType) {
+		Tween tween = engine.tweenPool.get();
 		tween.setup(target, tweenType, 0);
 		tween.ease(Quad.INOUT);
 		return tween;
 	}
 
+	/**
+	 * Factory creating a new standard interpolation of fields or bean
+	 * properties of the target, given by their names, without writing a
+	 * TweenAccessor. Names are separated by commas and are resolved once
+	 * per class, so the tween then runs as if an accessor was registered:
+	 * <br/><br/>
+	 *
+	 * <pre> {@code
+	 * Tween.to(myObject, "x,y", 1.0f)
+	 *      .target(50, 70)
+	 *      .start(myManager);
+	 * }</pre>
+	 *
+	 * Fields can be private, and of any primitive numeric type. If no field
+	 * is found, a pair of getX() and setX() methods is looked up instead,
+	 * but these are slower since their values get boxed.
+	 * <p/>
+	 *
+	 * <b>Not available with GWT.</b>
+	 *
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to tween.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween to(Object target, String properties, float duration) {
+		return to(TweenEngine.getDefault(), target, properties, duration);
+	}
+
+	/**
+	 * Same as {@link #to(Object, String, float)}, with the limits and pool of
+	 * the given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to tween.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween to(TweenEngine engine, Object target, String properties, float duration) {
+		Tween tween = engine.tweenPool.get();
+		tween.setupProperties(target, properties, duration);
+		tween.ease(Quad.INOUT);
+		tween.path(TweenPaths.catmullRom);
+		return tween;
+	}
+
+	/**
+	 * Factory creating a new reversed interpolation of fields or bean
+	 * properties of the target, given by their names. See
+	 * {@link #to(Object, String, float)}.
+	 *
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to tween.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween from(Object target, String properties, float duration) {
+		return from(TweenEngine.getDefault(), target, properties, duration);
+	}
+
+	/**
+	 * Same as {@link #from(Object, String, float)}, with the limits and pool
+	 * of the given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to tween.
+	 * @param duration The duration of the interpolation, in milliseconds.
+	 * @return The generated Tween.
+	 */
+	public static Tween from(TweenEngine engine, Object target, String properties, float duration) {
+		Tween tween = engine.tweenPool.get();
+		tween.setupProperties(target, properties, duration);
+		tween.ease(Quad.INOUT);
+		tween.path(TweenPaths.catmullRom);
+		tween.isFrom = true;
+		return tween;
+	}
+
+	/**
+	 * Factory creating a new instantaneous interpolation of fields or bean
+	 * properties of the target, given by their names. See
+	 * {@link #to(Object, String, float)}.
+	 *
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to set.
+	 * @return The generated Tween.
+	 */
+	public static Tween set(Object target, String properties) {
+		return set(TweenEngine.getDefault(), target, properties);
+	}
+
+	/**
+	 * Same as {@link #set(Object, String)}, with the limits and pool of the
+	 * given engine.
+	 *
+	 * @param engine The engine providing the tween.
+	 * @param target The target object of the interpolation.
+	 * @param properties The names of the fields or properties to set.
+	 * @return The generated Tween.
+	 */
+	public static Tween set(TweenEngine engine, Object target, String properties) {
+		Tween tween = engine.tweenPool.get();
+		tween.setupProperties(target, properties, 0);
+		tween.ease(Quad.INOUT);
+		return tween;
+	}
+
 	/**
 	 * Factory creating a new timer. The given callback will be triggered on
 	 * each iteration start, after the delay.
@@ -310,7 +466,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @see TweenCallback
 	 */
 	public static Tween call(TweenCallback callback) {
-		Tween tween = pool.get();
+		Tween tween = getPool().get();
 		tween.setup(null, -1, 0);
 		tween.setCallback(callback);
 		tween.setCallbackTriggers(TweenCallback.START);
@@ -327,7 +483,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @see Timeline
 	 */
 	public static Tween mark() {
-		Tween tween = pool.get();
+		Tween tween = getPool().get();
 		tween.setup(null, -1, 0);
 		return tween;
 	}
@@ -337,9 +493,13 @@ public final class Tween extends BaseTween<Tween> {
 	// -------------------------------------------------------------------------
 
 	// Main
+	private final TweenEngine engine;
 	private Object target;
 	private Class<?> targetClass;
 	private TweenAccessor<Object> accessor;
+	private TweenAttribute<Object> attribute;
+	private String properties;
+	private TweenBuffer.Entry entry;
 	private int type;
 	private TweenEquation equation;
 	private TweenPath path;
@@ -351,29 +511,37 @@ public final class Tween extends BaseTween<Tween> {
 	private int waypointsCnt;
 
 	// Values
-	private final float[] startValues = new float[combinedAttrsLimit];
-	private final float[] targetValues = new float[combinedAttrsLimit];
-	private final float[] waypoints = new float[waypointsLimit * combinedAttrsLimit];
+	private float[] startValues;
+	private float[] targetValues;
+	private float[] waypoints;
 
 	// Buffers
-	private float[] accessorBuffer = new float[combinedAttrsLimit];
-	private float[] pathBuffer = new float[(2+waypointsLimit)*combinedAttrsLimit];
+	private final TweenAttribute.Adapter adapter = new TweenAttribute.Adapter();
+	private float[] accessorBuffer;
+	private float[] pathBuffer;
 
 	// -------------------------------------------------------------------------
 	// Setup
 	// -------------------------------------------------------------------------
 
-	private Tween() {
+	Tween(TweenEngine engine) {
+		this.engine = engine;
 		reset();
 	}
 
 	@Override
 	protected void reset() {
 		super.reset();
+		tweensCnt = 1;
 
 		target = null;
 		targetClass = null;
 		accessor = null;
+		attribute = null;
+		properties = null;
+		adapter.set(null, -1);
+		if (entry != null) entry.release();
+		entry = null;
 		type = -1;
 		equation = null;
 		path = null;
@@ -381,11 +549,19 @@ public final class Tween extends BaseTween<Tween> {
 		isFrom = isRelative = false;
 		combinedAttrsCnt = waypointsCnt = 0;
 
-		if (accessorBuffer.length != combinedAttrsLimit) {
+		int combinedAttrsLimit = engine.combinedAttrsLimit;
+		int waypointsLimit = engine.waypointsLimit;
+
+		if (startValues == null || startValues.length != combinedAttrsLimit) {
+			startValues = new float[combinedAttrsLimit];
+			targetValues = new float[combinedAttrsLimit];
 			accessorBuffer = new float[combinedAttrsLimit];
 		}
 
-		if (pathBuffer.length != (2+waypointsLimit)*combinedAttrsLimit) {
+		// Both sizes are checked: different limits can give the same path size
+		if (waypoints == null || waypoints.length != waypointsLimit*combinedAttrsLimit
+			|| pathBuffer.length != (2+waypointsLimit)*combinedAttrsLimit) {
+			waypoints = new float[waypointsLimit*combinedAttrsLimit];
 			pathBuffer = new float[(2+waypointsLimit)*combinedAttrsLimit];
 		}
 	}
@@ -394,20 +570,42 @@ public final class Tween extends BaseTween<Tween> {
 		if (duration < 0) throw new RuntimeException("Duration can't be negative");
 
 		this.target = target;
-		this.targetClass = target != null ? findTargetClass() : null;
+		this.targetClass = target != null ? engine.findTargetClass(target) : null;
 		this.type = tweenType;
 		this.duration = duration;
 	}
 
-	private Class<?> findTargetClass() {
-		if (registeredAccessors.containsKey(target.getClass())) return target.getClass();
-		if (target instanceof TweenAccessor) return target.getClass();
+	// Properties are found from the class of the target itself, so there is
+	// no registered accessor to look for
+	private void setupProperties(Object target, String properties, float duration) {
+		if (target == null) throw new RuntimeException("A target is needed to tween its properties");
+		if (duration < 0) throw new RuntimeException("Duration can't be negative");
 
-		Class<?> parentClass = target.getClass().getSuperclass();
-		while (parentClass != null && !registeredAccessors.containsKey(parentClass))
-			parentClass = parentClass.getSuperclass();
+		this.target = target;
+		this.targetClass = target.getClass();
+		this.attribute = PropertyAttributes.get(targetClass, properties);
+		this.properties = properties;
+		this.type = -1;
+		this.duration = duration;
+	}
+
+	/**
+	 * Resolves the tween type into an attribute. Plain accessors are wrapped
+	 * in the given adapter, whose values are read once into the buffer to
+	 * know their count.
+	 */
+	static TweenAttribute<Object> findAttribute(Object target, TweenAccessor<Object> accessor, int type,
+		TweenAttribute.Adapter adapter, float[] buffer) {
 
-		return parentClass;
+		if (accessor instanceof TweenAttributeAccessor) {
+			TweenAttribute<Object> attribute = ((TweenAttributeAccessor<Object>) accessor).getAttribute(type);
+			if (attribute == null) throw new RuntimeException("No TweenAttribute was found for the tween type " + type);
+			return attribute;
+		}
+
+		adapter.set(accessor, type);
+		adapter.getValues(target, buffer);
+		return adapter;
 	}
 
 	// -------------------------------------------------------------------------
@@ -518,6 +716,31 @@ public final class Tween extends BaseTween<Tween> {
 		return this;
 	}
 
+	/**
+	 * Sets the target values of the interpolation. The interpolation will run
+	 * from the <b>values at start time (after the delay, if any)</b> to these
+	 * target values. Needs a combined attributes limit of at least 4.
+	 * <p/>
+	 *
+	 * To sum-up:<br/>
+	 * - start values: values at start time, after delay<br/>
+	 * - end values: params
+	 *
+	 * @param targetValue1 The 1st target value of the interpolation.
+	 * @param targetValue2 The 2nd target value of the interpolation.
+	 * @param targetValue3 The 3rd target value of the interpolation.
+	 * @param targetValue4 The 4th target value of the interpolation.
+	 * @return The current tween, for chaining instructions.
+	 */
+	public Tween target(float targetValue1, float targetValue2, float targetValue3, float targetValue4) {
+		if (engine.combinedAttrsLimit < 4) throwCombinedAttrsLimitReached();
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		targetValues[2] = targetValue3;
+		targetValues[3] = targetValue4;
+		return this;
+	}
+
 	/**
 	 * Sets the target values of the interpolation. The interpolation will run
 	 * from the <b>values at start time (after the delay, if any)</b> to these
@@ -532,7 +755,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween target(float... targetValues) {
-		if (targetValues.length > combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		if (targetValues.length > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
 		System.arraycopy(targetValues, 0, this.targetValues, 0, targetValues.length);
 		return this;
 	}
@@ -597,6 +820,32 @@ public final class Tween extends BaseTween<Tween> {
 		return this;
 	}
 
+	/**
+	 * Sets the target values of the interpolation, relatively to the <b>values
+	 * at start time (after the delay, if any)</b>. Needs a combined attributes
+	 * limit of at least 4.
+	 * <p/>
+	 *
+	 * To sum-up:<br/>
+	 * - start values: values at start time, after delay<br/>
+	 * - end values: params + values at start time, after delay
+	 *
+	 * @param targetValue1 The 1st relative target value of the interpolation.
+	 * @param targetValue2 The 2nd relative target value of the interpolation.
+	 * @param targetValue3 The 3rd relative target value of the interpolation.
+	 * @param targetValue4 The 4th relative target value of the interpolation.
+	 * @return The current tween, for chaining instructions.
+	 */
+	public Tween targetRelative(float targetValue1, float targetValue2, float targetValue3, float targetValue4) {
+		if (engine.combinedAttrsLimit < 4) throwCombinedAttrsLimitReached();
+		isRelative = true;
+		targetValues[0] = isInitialized() ? targetValue1 + startValues[0] : targetValue1;
+		targetValues[1] = isInitialized() ? targetValue2 + startValues[1] : targetValue2;
+		targetValues[2] = isInitialized() ? targetValue3 + startValues[2] : targetValue3;
+		targetValues[3] = isInitialized() ? targetValue4 + startValues[3] : targetValue4;
+		return this;
+	}
+
 	/**
 	 * Sets the target values of the interpolation, relatively to the <b>values
 	 * at start time (after the delay, if any)</b>.
@@ -610,7 +859,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween targetRelative(float... targetValues) {
-		if (targetValues.length > combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		if (targetValues.length > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
 		for (int i=0; i<targetValues.length; i++) {
 			this.targetValues[i] = isInitialized() ? targetValues[i] + startValues[i] : targetValues[i];
 		}
@@ -630,7 +879,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		if (waypointsCnt == engine.waypointsLimit) throwWaypointsLimitReached();
 		waypoints[waypointsCnt] = targetValue;
 		waypointsCnt += 1;
 		return this;
@@ -651,7 +900,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue1, float targetValue2) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		if (waypointsCnt == engine.waypointsLimit) throwWaypointsLimitReached();
 		waypoints[waypointsCnt*2] = targetValue1;
 		waypoints[waypointsCnt*2+1] = targetValue2;
 		waypointsCnt += 1;
@@ -674,7 +923,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue1, float targetValue2, float targetValue3) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		if (waypointsCnt == engine.waypointsLimit) throwWaypointsLimitReached();
 		waypoints[waypointsCnt*3] = targetValue1;
 		waypoints[waypointsCnt*3+1] = targetValue2;
 		waypoints[waypointsCnt*3+2] = targetValue3;
@@ -682,6 +931,33 @@ public final class Tween extends BaseTween<Tween> {
 		return this;
 	}
 
+	/**
+	 * Adds a waypoint to the path. The default path runs from the start values
+	 * to the end values linearly. If you add waypoints, the default path will
+	 * use a smooth catmull-rom spline to navigate between the waypoints, but
+	 * you can change this behavior by using the {@link #path(TweenPath)}
+	 * method.
+	 * <p/>
+	 * Note that if you want waypoints relative to the start values, use one of
+	 * the .targetRelative() methods to define your target.
+	 *
+	 * @param targetValue1 The 1st target of this waypoint.
+	 * @param targetValue2 The 2nd target of this waypoint.
+	 * @param targetValue3 The 3rd target of this waypoint.
+	 * @param targetValue4 The 4th target of this waypoint.
+	 * @return The current tween, for chaining instructions.
+	 */
+	public Tween waypoint(float targetValue1, float targetValue2, float targetValue3, float targetValue4) {
+		if (waypointsCnt == engine.waypointsLimit) throwWaypointsLimitReached();
+		if (engine.combinedAttrsLimit < 4) throwCombinedAttrsLimitReached();
+		waypoints[waypointsCnt*4] = targetValue1;
+		waypoints[waypointsCnt*4+1] = targetValue2;
+		waypoints[waypointsCnt*4+2] = targetValue3;
+		waypoints[waypointsCnt*4+3] = targetValue4;
+		waypointsCnt += 1;
+		return this;
+	}
+
 	/**
 	 * Adds a waypoint to the path. The default path runs from the start values
 	 * to the end values linearly. If you add waypoints, the default path will
@@ -696,7 +972,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float... targetValues) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		if (waypointsCnt == engine.waypointsLimit) throwWaypointsLimitReached();
 		System.arraycopy(targetValues, 0, waypoints, waypointsCnt*targetValues.length, targetValues.length);
 		waypointsCnt += 1;
 		return this;
@@ -760,7 +1036,8 @@ public final class Tween extends BaseTween<Tween> {
 	}
 
 	/**
-	 * Gets the TweenAccessor used with the target.
+	 * Gets the TweenAccessor used with the target. Tweens of named properties
+	 * have none.
 	 */
 	public TweenAccessor<?> getAccessor() {
 		return accessor;
@@ -781,25 +1058,37 @@ public final class Tween extends BaseTween<Tween> {
 	public Tween build() {
 		if (target == null) return this;
 
-		accessor = (TweenAccessor<Object>) registeredAccessors.get(targetClass);
-		if (accessor == null && target instanceof TweenAccessor) accessor = (TweenAccessor<Object>) target;
-		if (accessor != null) combinedAttrsCnt = accessor.getValues(target, type, accessorBuffer);
-		else throw new RuntimeException("No TweenAccessor was found for the target");
+		if (entry != null) return this;
+
+		// Tweens of named properties come with their attribute
+		if (accessor != null || attribute == null) {
+			accessor = engine.findAccessor(target, targetClass);
+			attribute = findAttribute(target, accessor, type, adapter, accessorBuffer);
+		}
+
+		combinedAttrsCnt = attribute.getCount();
+
+		if (combinedAttrsCnt > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
+
+		// With a buffer, values go to the buffer instead of the target
+		if (engine.buffer != null) {
+			entry = engine.buffer.acquire(target, accessor, attribute, type, combinedAttrsCnt);
+			attribute = entry;
+		}
 
-		if (combinedAttrsCnt > combinedAttrsLimit) throwCombinedAttrsLimitReached();
 		return this;
 	}
 
 	@Override
 	public void free() {
-		pool.free(this);
+		engine.tweenPool.free(this);
 	}
 
 	@Override
 	protected void initializeOverride() {
 		if (target == null) return;
 
-		accessor.getValues(target, type, startValues);
+		attribute.getValues(target, startValues);
 
 		for (int i=0; i<combinedAttrsCnt; i++) {
 			targetValues[i] += isRelative ? startValues[i] : 0;
@@ -823,12 +1112,12 @@ public final class Tween extends BaseTween<Tween> {
 		// Case iteration end has been reached
 
 		if (!isIterationStep && step > lastStep) {
-			accessor.setValues(target, type, isReverse(lastStep) ? startValues : targetValues);
+			attribute.setValues(target, isReverse(lastStep) ? startValues : targetValues);
 			return;
 		}
 
 		if (!isIterationStep && step < lastStep) {
-			accessor.setValues(target, type, isReverse(lastStep) ? targetValues : startValues);
+			attribute.setValues(target, isReverse(lastStep) ? targetValues : startValues);
 			return;
 		}
 
@@ -841,12 +1130,12 @@ public final class Tween extends BaseTween<Tween> {
 		// Case duration equals zero
 
 		if (duration < 0.00000000001f && delta > -0.00000000001f) {
-			accessor.setValues(target, type, isReverse(step) ? targetValues : startValues);
+			attribute.setValues(target, isReverse(step) ? targetValues : startValues);
 			return;
 		}
 
 		if (duration < 0.00000000001f && delta < 0.00000000001f) {
-			accessor.setValues(target, type, isReverse(step) ? startValues : targetValues);
+			attribute.setValues(target, isReverse(step) ? startValues : targetValues);
 			return;
 		}
 
@@ -872,7 +1161,7 @@ public final class Tween extends BaseTween<Tween> {
 			}
 		}
 
-		accessor.setValues(target, type, accessorBuffer);
+		attribute.setValues(target, accessorBuffer);
 	}
 
 	// -------------------------------------------------------------------------
@@ -882,13 +1171,13 @@ public final class Tween extends BaseTween<Tween> {
 	@Override
 	protected void forceStartValues() {
 		if (target == null) return;
-		accessor.setValues(target, type, startValues);
+		attribute.setValues(target, startValues);
 	}
 
 	@Override
 	protected void forceEndValues() {
 		if (target == null) return;
-		accessor.setValues(target, type, targetValues);
+		attribute.setValues(target, targetValues);
 	}
 
 	@Override
@@ -901,23 +1190,94 @@ public final class Tween extends BaseTween<Tween> {
 		return this.target == target && this.type == tweenType;
 	}
 
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the names of the tweened properties, if the tween was created
+	 * with them.
+	 */
+	String getProperties() {
+		return properties;
+	}
+
+	// -------------------------------------------------------------------------
+	// Snapshots
+	// -------------------------------------------------------------------------
+
+	@Override
+	void writeState(TweenSnapshot s) {
+		super.writeState(s);
+		s.writeObject(target);
+		s.writeInt(type);
+		s.writeString(properties);
+
+		// A target class set by cast() can't be found again from the target
+		Class<?> defaultClass = target == null ? null
+			: properties != null ? target.getClass() : engine.findTargetClass(target);
+		s.writeObject(targetClass != defaultClass ? targetClass : null);
+
+		s.writeEquation(equation);
+		s.writePath(path);
+		s.writeByte((isFrom ? 1 : 0) | (isRelative ? 2 : 0));
+		s.writeByte(combinedAttrsCnt);
+		s.writeByte(waypointsCnt);
+		for (int i=0; i<combinedAttrsCnt; i++) s.writeFloat(startValues[i]);
+		for (int i=0; i<combinedAttrsCnt; i++) s.writeFloat(targetValues[i]);
+		for (int i=0, n=waypointsCnt*combinedAttrsCnt; i<n; i++) s.writeFloat(waypoints[i]);
+	}
+
+	@Override
+	void readState(TweenSnapshot s) {
+		super.readState(s);
+		target = s.readObject();
+		type = s.readInt();
+		properties = s.readString();
+		targetClass = (Class<?>) s.readObject();
+
+		if (target != null && targetClass == null) {
+			targetClass = properties != null ? target.getClass() : engine.findTargetClass(target);
+		}
+		if (target != null && properties != null) {
+			attribute = PropertyAttributes.get(targetClass, properties);
+		}
+
+		equation = s.readEquation();
+		path = s.readPath();
+		int flags = s.readByte();
+		isFrom = (flags & 1) != 0;
+		isRelative = (flags & 2) != 0;
+
+		int attrsCnt = s.readByte();
+		waypointsCnt = s.readByte();
+		if (attrsCnt > engine.combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		if (waypointsCnt > engine.waypointsLimit) throwWaypointsLimitReached();
+		for (int i=0; i<attrsCnt; i++) startValues[i] = s.readFloat();
+		for (int i=0; i<attrsCnt; i++) targetValues[i] = s.readFloat();
+		for (int i=0, n=waypointsCnt*attrsCnt; i<n; i++) waypoints[i] = s.readFloat();
+
+		build();
+		if (combinedAttrsCnt != attrsCnt) throw new RuntimeException("The attributes of a tween in the snapshot don't match its target anymore");
+	}
+
 	// -------------------------------------------------------------------------
 	// Helpers
 	// -------------------------------------------------------------------------
 
 	private void throwCombinedAttrsLimitReached() {
-		String msg = "You cannot combine more than " + combinedAttrsLimit + " "
+		String msg = "You cannot combine more than " + engine.combinedAttrsLimit + " "
 			+ "attributes in a tween. You can raise this limit with "
-			+ "Tween.setCombinedAttributesLimit(), which should be called once "
-			+ "in application initialization code.";
+			+ "TweenEngine.setCombinedAttributesLimit() on the engine of the tween, "
+			+ "which should be called once in application initialization code.";
 		throw new RuntimeException(msg);
 	}
 
 	private void throwWaypointsLimitReached() {
-		String msg = "You cannot add more than " + waypointsLimit + " "
+		String msg = "You cannot add more than " + engine.waypointsLimit + " "
 			+ "waypoints to a tween. You can raise this limit with "
-			+ "Tween.setWaypointsLimit(), which should be called once in "
-			+ "application initialization code.";
+			+ "TweenEngine.setWaypointsLimit() on the engine of the tween, which "
+			+ "should be called once in application initialization code.";
 		throw new RuntimeException(msg);
 	}
 }
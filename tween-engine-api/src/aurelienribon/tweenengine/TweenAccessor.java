@@ -54,6 +54,12 @@ package aurelienribon.tweenengine;
  * }</pre>
  *
  * And that's all, the Tween Engine can no work with all your particles!
+ * <p/>
+ *
+ * If your accessor handles many tween types, or is used by many tweens,
+ * consider extending {@link TweenAttributeAccessor} instead: each tween type
+ * is then resolved once, when tweens are built, rather than switched on
+ * every frame.
  *
  * @author Aurelien Ribon | http://www.aurelienribon.com/
  */
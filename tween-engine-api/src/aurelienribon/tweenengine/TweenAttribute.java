@@ -0,0 +1,84 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A TweenAttribute reads and writes one tween type of one kind of target.
+ * It is the resolved form of a tween type: unlike {@link TweenAccessor}
+ * methods, its methods don't receive the tween type, so they don't need to
+ * switch on it every frame, and the engine knows how many values they handle
+ * without calling them first.
+ * <p/>
+ *
+ * Attributes are given to the engine by a {@link TweenAttributeAccessor},
+ * which should create them once and return the same instances every time.
+ *
+ * @see TweenAttributeAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public abstract class TweenAttribute<T> {
+	int count;
+
+	/**
+	 * @param count The number of values read and written by this attribute.
+	 */
+	protected TweenAttribute(int count) {
+		this.count = count;
+	}
+
+	TweenAttribute() {
+	}
+
+	/**
+	 * Gets the number of values read and written by this attribute.
+	 */
+	public final int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the values of the attribute from the target object. It is used by
+	 * the Tween Engine to determine starting values.
+	 *
+	 * @param target The target object of the tween.
+	 * @param returnValues An array which should be modified by this method.
+	 */
+	public abstract void getValues(T target, float[] returnValues);
+
+	/**
+	 * This method is called by the Tween Engine each time a running tween
+	 * associated with the current target object has been updated.
+	 *
+	 * @param target The target object of the tween.
+	 * @param newValues The new values determined by the Tween Engine.
+	 */
+	public abstract void setValues(T target, float[] newValues);
+
+	// -------------------------------------------------------------------------
+	// Adapter
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Makes a plain TweenAccessor look like an attribute. Each tween owns one,
+	 * so that tweens can always deal with attributes without allocating
+	 * anything.
+	 */
+	static final class Adapter extends TweenAttribute<Object> {
+		private TweenAccessor<Object> accessor;
+		private int type;
+
+		void set(TweenAccessor<Object> accessor, int type) {
+			this.accessor = accessor;
+			this.type = type;
+			this.count = 0;
+		}
+
+		@Override
+		public void getValues(Object target, float[] returnValues) {
+			count = accessor.getValues(target, type, returnValues);
+		}
+
+		@Override
+		public void setValues(Object target, float[] newValues) {
+			accessor.setValues(target, type, newValues);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A TweenAccessor that resolves each tween type into a {@link TweenAttribute}.
+ * Tweens ask for the attribute once, when they are built, and then call it
+ * directly every frame: there is no switch on the tween type, and no extra
+ * call is needed to learn the number of combined values.
+ * <p/>
+ *
+ * <h2>Example</h2>
+ *
+ * <pre> {@code
+ * public class ParticleAccessor extends TweenAttributeAccessor<Particle> {
+ *     public static final int X = 0;
+ *     public static final int XY = 1;
+ *
+ *     private final TweenAttribute<Particle>[] attributes = new TweenAttribute[] {
+ *         new TweenAttribute<Particle>(1) {
+ *             public void getValues(Particle p, float[] v) {v[0] = p.getX();}
+ *             public void setValues(Particle p, float[] v) {p.setX(v[0]);}
+ *         },
+ *         new TweenAttribute<Particle>(2) {
+ *             public void getValues(Particle p, float[] v) {v[0] = p.getX(); v[1] = p.getY();}
+ *             public void setValues(Particle p, float[] v) {p.setX(v[0]); p.setY(v[1]);}
+ *         }
+ *     };
+ *
+ *     public TweenAttribute<Particle> getAttribute(int tweenType) {
+ *         return attributes[tweenType];
+ *     }
+ * }
+ * }</pre>
+ *
+ * It is registered like any other accessor, with
+ * {@link Tween#registerAccessor}.
+ *
+ * @see TweenAttribute
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public abstract class TweenAttributeAccessor<T> implements TweenAccessor<T> {
+	/**
+	 * Gets the attribute associated to the given tween type. It should return
+	 * the same instance every time, since it is only called when a tween is
+	 * built.
+	 *
+	 * @param tweenType An integer representing the tween type.
+	 * @return The attribute, or null if the tween type is unknown.
+	 */
+	public abstract TweenAttribute<T> getAttribute(int tweenType);
+
+	@Override
+	public final int getValues(T target, int tweenType, float[] returnValues) {
+		TweenAttribute<T> attribute = getAttribute(tweenType);
+		attribute.getValues(target, returnValues);
+		return attribute.getCount();
+	}
+
+	@Override
+	public final void setValues(T target, int tweenType, float[] newValues) {
+		getAttribute(tweenType).setValues(target, newValues);
+	}
+}
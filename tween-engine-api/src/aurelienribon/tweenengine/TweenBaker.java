@@ -0,0 +1,186 @@
+package aurelienribon.tweenengine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bakes a tween or timeline into keyframes: its animation is played once,
+ * and the values of every animated attribute are sampled at a fixed rate
+ * into float tracks. A {@link BakedAnimation} plays them back, without any
+ * timeline, equation or path to evaluate.
+ * <p/>
+ *
+ * <pre> {@code
+ * Timeline intro = buildIntro(dummyCamera, dummyHero);
+ * List<Object> targets = TweenBaker.bake(intro, 60, new File("intro.anim"));
+ * }</pre>
+ *
+ * There is a track for each target and tween type (or properties) animated
+ * by a tween or a stagger. Targets are numbered in the order they first
+ * appear in the animation, depth-first: this is the order of the returned
+ * list, and of the targets given to {@link BakedAnimation#apply}.
+ * <p/>
+ *
+ * The animation is played on its targets, which should be dummies of the
+ * real ones, with its callbacks, then freed. It can't repeat forever. The
+ * values are read through the accessors: bake with an engine without
+ * {@link TweenBuffer}.
+ *
+ * @see BakedAnimation
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenBaker {
+	static final int MAGIC = 0x54574231; // "TWB1"
+
+	/**
+	 * Bakes an animation, not started, into a file.
+	 *
+	 * @param frameRate The number of samples per second.
+	 * @return The targets of the animation, in the order of their index.
+	 */
+	public static List<Object> bake(BaseTween<?> animation, float frameRate, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			return bake(animation, frameRate, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Bakes an animation, not started, into a stream. The stream is not
+	 * closed.
+	 *
+	 * @param frameRate The number of samples per second.
+	 * @return The targets of the animation, in the order of their index.
+	 */
+	public static List<Object> bake(BaseTween<?> animation, float frameRate, OutputStream out) throws IOException {
+		if (animation.isStarted()) throw new RuntimeException("The animation to bake can't be started");
+		if (frameRate <= 0) throw new RuntimeException("The frame rate must be positive");
+
+		animation.build();
+		float duration = animation.getFullDuration();
+		if (duration < 0 || Float.isInfinite(duration)) throw new RuntimeException("An animation repeated forever, or an open queue, can't be baked");
+
+		List<Object> targets = new ArrayList<Object>();
+		List<Track> tracks = new ArrayList<Track>();
+		findTracks(animation, targets, tracks);
+
+		int framesCnt = (int) Math.ceil(duration * frameRate) + 1;
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+		// Header, padded so that the frames are aligned on floats
+		int headerSize = 24;
+		data.writeInt(MAGIC);
+		data.writeFloat(frameRate);
+		data.writeFloat(duration);
+		data.writeInt(framesCnt);
+		data.writeInt(targets.size());
+		data.writeInt(tracks.size());
+
+		for (int i=0; i<tracks.size(); i++) {
+			Track track = tracks.get(i);
+			data.writeInt(track.target);
+			data.writeInt(track.type);
+			data.writeInt(track.size);
+			data.writeShort(track.properties != null ? track.properties.length() : -1);
+			if (track.properties != null) data.writeChars(track.properties);
+			headerSize += 14 + (track.properties != null ? track.properties.length()*2 : 0);
+		}
+
+		for (; headerSize % 4 != 0; headerSize++) data.writeByte(0);
+
+		// Frames, each one with the values of all the tracks
+		float[] buffer = new float[getBufferSize(tracks)];
+		animation.start();
+		animation.update(0);
+
+		for (int f=0; f<framesCnt; f++) {
+			if (f > 0) animation.update(1 / frameRate);
+
+			for (int i=0; i<tracks.size(); i++) {
+				Track track = tracks.get(i);
+				track.attribute.getValues(targets.get(track.target), buffer);
+				for (int ii=0; ii<track.size; ii++) data.writeFloat(buffer[ii]);
+			}
+		}
+
+		data.flush();
+		animation.free();
+		return targets;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static class Track {
+		int target;
+		int type;
+		String properties;
+		int size;
+		TweenAttribute<Object> attribute;
+	}
+
+	private static void findTracks(BaseTween<?> animation, List<Object> targets, List<Track> tracks) {
+		List<BaseTween<?>> stack = new ArrayList<BaseTween<?>>();
+		float[] buffer = new float[Math.max(TweenEngine.getDefault().getCombinedAttributesLimit(), 16)];
+		stack.add(animation);
+
+		while (!stack.isEmpty()) {
+			BaseTween<?> obj = stack.remove(stack.size()-1);
+			List<BaseTween<?>> children = TweenSnapshot.getChildren(obj);
+
+			if (children != null) {
+				for (int i=children.size()-1; i>=0; i--) stack.add(children.get(i));
+			} else if (obj instanceof Tween) {
+				Tween tween = (Tween) obj;
+				if (tween.getTarget() != null) addTrack(tween.getTarget(), tween.getType(), tween.getProperties(), targets, tracks, buffer);
+			} else if (obj instanceof Stagger) {
+				Stagger stagger = (Stagger) obj;
+				Object[] objs = stagger.getTargets();
+				for (int i=0; i<objs.length; i++) addTrack(objs[i], stagger.getType(), null, targets, tracks, buffer);
+			}
+		}
+	}
+
+	private static void addTrack(Object target, int type, String properties, List<Object> targets, List<Track> tracks, float[] buffer) {
+		int index = indexOf(targets, target);
+		if (index < 0) {
+			index = targets.size();
+			targets.add(target);
+		}
+
+		for (int i=0; i<tracks.size(); i++) {
+			Track track = tracks.get(i);
+			if (track.target != index || track.type != type) continue;
+			if (properties == null ? track.properties == null : properties.equals(track.properties)) return;
+		}
+
+		Track track = new Track();
+		track.target = index;
+		track.type = type;
+		track.properties = properties;
+		track.attribute = BakedAnimation.findAttribute(target, type, properties, new TweenAttribute.Adapter(), buffer);
+		track.attribute.getValues(target, buffer);
+		track.size = track.attribute.getCount();
+		tracks.add(track);
+	}
+
+	private static int indexOf(List<Object> targets, Object target) {
+		for (int i=0; i<targets.size(); i++) if (targets.get(i) == target) return i;
+		return -1;
+	}
+
+	private static int getBufferSize(List<Track> tracks) {
+		int size = 0;
+		for (int i=0; i<tracks.size(); i++) size = Math.max(size, tracks.get(i).size);
+		return size;
+	}
+}
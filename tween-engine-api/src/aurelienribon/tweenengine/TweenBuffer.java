@@ -0,0 +1,252 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * A TweenBuffer lets tweens be computed on a worker thread while another
+ * thread, usually the render thread, owns the animated objects. Tweens of an
+ * engine using a buffer (see {@link TweenEngine#setBuffer}) don't write their
+ * values into their targets: they write them into a back buffer, one per
+ * target and attribute. Publishing the buffer makes the last written values
+ * visible to the owning thread, which applies all of them at once:
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenBuffer buffer = new TweenBuffer();
+ * engine.setBuffer(buffer);
+ *
+ * // worker thread, every frame
+ * manager.update(delta);
+ * buffer.publish();
+ *
+ * // render thread, every frame, before drawing
+ * buffer.apply();
+ * }</pre>
+ *
+ * The render thread thus never sees the values of a half-computed frame,
+ * and targets are only ever written by their owning thread. The lock shared
+ * by publish() and apply() is only held while values are copied, never while
+ * tweens are computed or accessors are called. Nothing is allocated once
+ * each target and attribute got its buffer.
+ * <p/>
+ *
+ * Tweens still read their starting values through their accessor, from the
+ * worker thread, unless values were already buffered for the same target and
+ * attribute, in which case they start from these values.
+ *
+ * @see TweenEngine#setBuffer(TweenBuffer)
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenBuffer {
+	// Worker side
+	private final IdentityHashMap<Object, Entry> entries = new IdentityHashMap<Object, Entry>();
+	private final ArrayList<Entry> dirtyEntries = new ArrayList<Entry>();
+	private final ArrayList<Entry> releasedEntries = new ArrayList<Entry>();
+
+	// Shared side, guarded by the lock
+	private final Object lock = new Object();
+	private ArrayList<Entry> publishedEntries = new ArrayList<Entry>();
+
+	// Owner side
+	private ArrayList<Entry> appliedEntries = new ArrayList<Entry>();
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Makes the values written since the last call visible to
+	 * {@link #apply()}. Call it from the thread updating the tweens, once a
+	 * frame is completely computed.
+	 */
+	public void publish() {
+		synchronized (lock) {
+			for (int i=0, n=dirtyEntries.size(); i<n; i++) {
+				Entry entry = dirtyEntries.get(i);
+				System.arraycopy(entry.back, 0, entry.front, 0, entry.count);
+				entry.isDirty = false;
+
+				if (!entry.isPublished) {
+					entry.isPublished = true;
+					publishedEntries.add(entry);
+				}
+			}
+		}
+
+		dirtyEntries.clear();
+
+		// Buffers not used by any tween anymore are dropped once their last
+		// values are published, unless a new tween picked them up meanwhile
+
+		for (int i=0, n=releasedEntries.size(); i<n; i++) {
+			Entry entry = releasedEntries.get(i);
+			entry.isReleased = false;
+			if (entry.refCount == 0) remove(entry);
+		}
+
+		releasedEntries.clear();
+	}
+
+	/**
+	 * Writes the last published values into their targets. Call it from the
+	 * thread owning the targets. Returns the number of updated attributes.
+	 */
+	public int apply() {
+		ArrayList<Entry> applied = appliedEntries;
+
+		synchronized (lock) {
+			appliedEntries = publishedEntries;
+			publishedEntries = applied;
+			applied = appliedEntries;
+
+			for (int i=0, n=applied.size(); i<n; i++) {
+				Entry entry = applied.get(i);
+				System.arraycopy(entry.front, 0, entry.applied, 0, entry.count);
+				entry.isPublished = false;
+			}
+		}
+
+		int n = applied.size();
+		for (int i=0; i<n; i++) applied.get(i).apply();
+		applied.clear();
+		return n;
+	}
+
+	/**
+	 * Gets the number of target attributes currently buffered.
+	 */
+	public int size() {
+		int size = 0;
+		for (Entry entry : entries.values()) {
+			for (; entry != null; entry = entry.nextOfTarget) size += 1;
+		}
+		return size;
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the buffer of a target attribute, to be used by a tween instead of
+	 * the attribute itself. Plain accessors are identified by their accessor
+	 * and tween type, since their attribute is an adapter owned by the tween.
+	 * Must be balanced by a call to {@link Entry#release()}.
+	 */
+	Entry acquire(Object target, TweenAccessor<Object> accessor, TweenAttribute<Object> attribute, int type, int count) {
+		Object owner = attribute instanceof TweenAttribute.Adapter ? accessor : attribute;
+		if (owner == accessor) {
+			attribute = null;
+		} else {
+			accessor = null;
+			type = -1;
+		}
+
+		Entry first = entries.get(target);
+		for (Entry entry = first; entry != null; entry = entry.nextOfTarget) {
+			if (entry.owner == owner && entry.type == type) {
+				entry.refCount += 1;
+				return entry;
+			}
+		}
+
+		Entry entry = new Entry(this, target, owner, accessor, attribute, type, count);
+		entry.nextOfTarget = first;
+		entry.refCount = 1;
+		entries.put(target, entry);
+		return entry;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void remove(Entry entry) {
+		Entry first = entries.get(entry.target);
+		if (first == entry) {
+			if (entry.nextOfTarget != null) entries.put(entry.target, entry.nextOfTarget);
+			else entries.remove(entry.target);
+			return;
+		}
+
+		for (Entry e = first; e != null; e = e.nextOfTarget) {
+			if (e.nextOfTarget == entry) {
+				e.nextOfTarget = entry.nextOfTarget;
+				return;
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Entry
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The buffer of one attribute of one target. Tweens use it as their
+	 * attribute.
+	 */
+	static final class Entry extends TweenAttribute<Object> {
+		private final TweenBuffer buffer;
+		private final Object target;
+		private final Object owner;
+		private final TweenAccessor<Object> accessor;
+		private final TweenAttribute<Object> attribute;
+		private final int type;
+		private final float[] back;
+		private final float[] front;
+		private final float[] applied;
+
+		private Entry nextOfTarget;
+		private int refCount;
+		private boolean hasValues;
+		private boolean isDirty;
+		private boolean isPublished;
+		private boolean isReleased;
+
+		Entry(TweenBuffer buffer, Object target, Object owner, TweenAccessor<Object> accessor, TweenAttribute<Object> attribute, int type, int count) {
+			super(count);
+			this.buffer = buffer;
+			this.target = target;
+			this.owner = owner;
+			this.accessor = accessor;
+			this.attribute = attribute;
+			this.type = type;
+			this.back = new float[count];
+			this.front = new float[count];
+			this.applied = new float[count];
+		}
+
+		@Override
+		public void getValues(Object target, float[] returnValues) {
+			if (hasValues) System.arraycopy(back, 0, returnValues, 0, count);
+			else if (attribute != null) attribute.getValues(target, returnValues);
+			else accessor.getValues(target, type, returnValues);
+		}
+
+		@Override
+		public void setValues(Object target, float[] newValues) {
+			System.arraycopy(newValues, 0, back, 0, count);
+			hasValues = true;
+
+			if (!isDirty) {
+				isDirty = true;
+				buffer.dirtyEntries.add(this);
+			}
+		}
+
+		void release() {
+			refCount -= 1;
+
+			if (refCount == 0 && !isReleased) {
+				isReleased = true;
+				buffer.releasedEntries.add(this);
+			}
+		}
+
+		private void apply() {
+			if (attribute != null) attribute.setValues(target, applied);
+			else accessor.setValues(target, type, applied);
+		}
+	}
+}
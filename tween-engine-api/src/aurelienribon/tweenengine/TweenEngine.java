@@ -0,0 +1,222 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TweenEngine holds what tweens share: the registered accessors, the
+ * limits of combined attributes and waypoints, and the pool of tweens. The
+ * static methods of {@link Tween} use the default engine, which is enough for
+ * most applications.
+ * <p/>
+ *
+ * Create more engines to isolate parts of an application from each other,
+ * for instance two game worlds, or the sessions hosted by a server: each
+ * engine has its own accessors, its own limits (so that raising the limit of
+ * waypoints in one of them doesn't make every tween of the others bigger),
+ * and its own pool, sized for its own workload.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenEngine engine = new TweenEngine();
+ * engine.setWaypointsLimit(10);
+ * engine.registerAccessor(Particle.class, new ParticleAccessor());
+ *
+ * Tween.to(engine, myParticle, POSITION, 1.0f).target(20, 30).start(myManager);
+ * }</pre>
+ *
+ * Tweens of different engines can be mixed in the same timelines and
+ * managers.
+ *
+ * @see Tween
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenEngine {
+	private static final TweenEngine defaultEngine = new TweenEngine();
+
+	/**
+	 * Gets the engine used by the static methods of Tween.
+	 */
+	public static TweenEngine getDefault() {
+		return defaultEngine;
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	int combinedAttrsLimit = 3;
+	int waypointsLimit = 0;
+	TweenBuffer buffer;
+
+	// Both maps are replaced, never modified, once published: they can be
+	// read from any thread without locking. The second one memoizes, for
+	// each class of target met so far, the registered class to use.
+	private volatile Map<Class<?>, TweenAccessor<?>> registeredAccessors = new HashMap<Class<?>, TweenAccessor<?>>();
+	private volatile Map<Class<?>, Class<?>> resolvedClasses = new HashMap<Class<?>, Class<?>>();
+	private final Object registryLock = new Object();
+
+	final Pool<Tween> tweenPool = new Pool<Tween>(20, Tween.poolCallback) {
+		@Override protected Tween create() {return new Tween(TweenEngine.this);}
+	};
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Changes the limit for combined attributes. Defaults to 3 to reduce
+	 * memory footprint. Pooled tweens are resized when they are reused.
+	 */
+	public void setCombinedAttributesLimit(int limit) {
+		this.combinedAttrsLimit = limit;
+	}
+
+	/**
+	 * Gets the limit for combined attributes.
+	 */
+	public int getCombinedAttributesLimit() {
+		return combinedAttrsLimit;
+	}
+
+	/**
+	 * Changes the limit of allowed waypoints for each tween. Defaults to 0 to
+	 * reduce memory footprint. Pooled tweens are resized when they are
+	 * reused.
+	 */
+	public void setWaypointsLimit(int limit) {
+		this.waypointsLimit = limit;
+	}
+
+	/**
+	 * Gets the limit of allowed waypoints for each tween.
+	 */
+	public int getWaypointsLimit() {
+		return waypointsLimit;
+	}
+
+	/**
+	 * Makes the tweens of this engine write their values into the given
+	 * buffer instead of their targets, or directly into their targets again
+	 * if the buffer is null. Only affects the tweens built afterwards. See
+	 * {@link TweenBuffer}.
+	 */
+	public void setBuffer(TweenBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Gets the buffer used by the tweens of this engine, if any.
+	 */
+	public TweenBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Registers an accessor with the class of an object. This accessor will be
+	 * used by tweens applied to every objects implementing the registered
+	 * class or interface, or inheriting from it. Accessors registered with
+	 * a class take precedence over those registered with an interface.
+	 * Interfaces are not considered with GWT.
+	 * <p/>
+	 *
+	 * Registering is meant to happen at initialization, but it is safe to do
+	 * it while other threads create tweens.
+	 *
+	 * @param someClass An object class or interface.
+	 * @param defaultAccessor The accessor that will be used to tween any
+	 * object of class "someClass".
+	 */
+	public void registerAccessor(Class<?> someClass, TweenAccessor<?> defaultAccessor) {
+		synchronized (registryLock) {
+			Map<Class<?>, TweenAccessor<?>> accessors = new HashMap<Class<?>, TweenAccessor<?>>(registeredAccessors);
+			accessors.put(someClass, defaultAccessor);
+			registeredAccessors = accessors;
+			resolvedClasses = new HashMap<Class<?>, Class<?>>();
+		}
+	}
+
+	/**
+	 * Gets the registered TweenAccessor associated with the given object class.
+	 *
+	 * @param someClass An object class.
+	 */
+	public TweenAccessor<?> getRegisteredAccessor(Class<?> someClass) {
+		return registeredAccessors.get(someClass);
+	}
+
+	/**
+	 * Gets the pool of tweens of this engine, in order to bound it, trim it
+	 * or prewarm it, and to get its statistics.
+	 *
+	 * @see Pool
+	 */
+	public Pool<Tween> getTweenPool() {
+		return tweenPool;
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	Class<?> findTargetClass(Object target) {
+		Class<?> type = target.getClass();
+		if (target instanceof TweenAccessor) return type;
+
+		Map<Class<?>, Class<?>> resolved = resolvedClasses;
+		Class<?> targetClass = resolved.get(type);
+		if (targetClass != null) return targetClass;
+
+		Map<Class<?>, TweenAccessor<?>> accessors = registeredAccessors;
+		targetClass = resolveTargetClass(type, accessors);
+		if (targetClass == null) return null;
+
+		synchronized (registryLock) {
+			if (registeredAccessors == accessors) {
+				resolved = new HashMap<Class<?>, Class<?>>(resolvedClasses);
+				resolved.put(type, targetClass);
+				resolvedClasses = resolved;
+			}
+		}
+
+		return targetClass;
+	}
+
+	TweenAccessor<Object> findAccessor(Object target, Class<?> targetClass) {
+		TweenAccessor<Object> accessor = (TweenAccessor<Object>) registeredAccessors.get(targetClass);
+		if (accessor == null && target instanceof TweenAccessor) accessor = (TweenAccessor<Object>) target;
+		if (accessor == null) throw new RuntimeException("No TweenAccessor was found for the target");
+		return accessor;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static Class<?> resolveTargetClass(Class<?> type, Map<Class<?>, TweenAccessor<?>> accessors) {
+		if (accessors.containsKey(type)) return type;
+
+		for (Class<?> c = type.getSuperclass(); c != null; c = c.getSuperclass()) {
+			if (accessors.containsKey(c)) return c;
+		}
+
+		// Interfaces, breadth-first, starting with the ones closest to the
+		// class in its hierarchy
+
+		List<Class<?>> interfaces = new ArrayList<Class<?>>();
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			Collections.addAll(interfaces, ClassHierarchy.getInterfaces(c));
+		}
+
+		for (int i=0; i<interfaces.size(); i++) {
+			Class<?> itf = interfaces.get(i);
+			if (accessors.containsKey(itf)) return itf;
+			Collections.addAll(interfaces, ClassHierarchy.getInterfaces(itf));
+		}
+
+		return null;
+	}
+}
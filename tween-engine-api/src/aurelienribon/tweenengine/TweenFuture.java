@@ -0,0 +1,155 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A Future completed when a tween or timeline ends, so that another thread
+ * can wait for an animation, for instance to sequence a scripted cutscene or
+ * in a test waiting for a transition:
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenFuture done = TweenFuture.of(Tween.to(...).start(myManager));
+ * ...
+ * done.get(); // blocks until the tween is complete, killed or freed
+ * }</pre>
+ *
+ * The future is completed by the update of the tween itself, when it reaches
+ * its end (COMPLETE event) or when it is killed: nothing is polled. Its value
+ * is true if the animation completed, false if it was killed, or freed before
+ * its end. Blocking relies on java.util.concurrent, so waiting virtual
+ * threads don't hold any platform thread.
+ * <p/>
+ *
+ * <b>Not available with GWT.</b>
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenFuture implements Future<Boolean> {
+	/**
+	 * Creates a future completed when the given tween or timeline ends. Must
+	 * be called from the thread updating the object, or before it is started.
+	 */
+	public static TweenFuture of(BaseTween<?> object) {
+		object.checkNotFreed();
+		TweenFuture future = new TweenFuture();
+		if (object.isFinished()) future.complete(Boolean.valueOf(!object.isKilled()), false);
+		else object.addCompletion(future.completion);
+		return future;
+	}
+
+	// -------------------------------------------------------------------------
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+	private volatile Boolean value;
+	private volatile boolean isCancelled;
+	private Listener listeners; // guarded by this
+
+	private final BaseTween.Completion completion = new BaseTween.Completion() {
+		@Override void onDone(boolean isCompleted) {complete(Boolean.valueOf(isCompleted), false);}
+	};
+
+	private TweenFuture() {
+	}
+
+	/**
+	 * Runs the given listener once the animation ends, on the given executor.
+	 * If it already ended, the listener is submitted right away.
+	 */
+	public void addListener(Runnable listener, Executor executor) {
+		synchronized (this) {
+			if (latch.getCount() > 0) {
+				listeners = new Listener(listener, executor, listeners);
+				return;
+			}
+		}
+		executor.execute(listener);
+	}
+
+	/**
+	 * Stops waiting for the animation, which is not affected: use kill() on
+	 * the animation itself to stop it. Threads waiting on get() get a
+	 * CancellationException.
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return complete(null, true);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return isCancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+	/**
+	 * Waits for the end of the animation. Returns true if it completed, false
+	 * if it was killed or freed before its end.
+	 */
+	@Override
+	public Boolean get() throws InterruptedException {
+		latch.await();
+		return getValue();
+	}
+
+	@Override
+	public Boolean get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+		if (!latch.await(timeout, unit)) throw new TimeoutException();
+		return getValue();
+	}
+
+	// -------------------------------------------------------------------------
+
+	private Boolean getValue() {
+		if (isCancelled) throw new CancellationException();
+		return value;
+	}
+
+	// Only the first call completes the future, either by a cancellation or
+	// by the end of the animation
+	private boolean complete(Boolean value, boolean isCancelled) {
+		Listener l;
+
+		synchronized (this) {
+			if (latch.getCount() == 0) return false;
+			this.value = value;
+			this.isCancelled = isCancelled;
+			latch.countDown();
+			l = listeners;
+			listeners = null;
+		}
+
+		// Listeners were pushed on a stack: run them in registration order
+		Listener first = null;
+		while (l != null) {
+			Listener next = l.next;
+			l.next = first;
+			first = l;
+			l = next;
+		}
+
+		for (; first != null; first = first.next) first.executor.execute(first.listener);
+		return true;
+	}
+
+	private static final class Listener {
+		final Runnable listener;
+		final Executor executor;
+		Listener next;
+
+		Listener(Runnable listener, Executor executor, Listener next) {
+			this.listener = listener;
+			this.executor = executor;
+			this.next = next;
+		}
+	}
+}
@@ -49,7 +49,35 @@ public class TweenManager {
 	// -------------------------------------------------------------------------
 
 	private final ArrayList<BaseTween<?>> objects = new ArrayList<BaseTween<?>>(20);
-	private boolean isPaused = false;
+	private final List<BaseTween<?>> objectsView = Collections.unmodifiableList(objects);
+	boolean isPaused = false;
+	private int tweensCnt = 0;
+	private int timelinesCnt = 0;
+
+	// Handles. The slots and their generations are only used by the thread
+	// updating the manager, while the free slots, with their generation, are
+	// taken from a lock-free stack, since postAdd() reserves one from any
+	// thread.
+	private BaseTween<?>[] slots = new BaseTween<?>[0];
+	private int[] slotGenerations = new int[0];
+	private final IndexStack freeSlots = new IndexStack();
+
+	// Commands posted by other threads. Run commands are given back by their
+	// id, so that posting them doesn't allocate anything.
+	private final CommandQueue commands = new CommandQueue();
+	private final IndexStack freeCommands = new IndexStack();
+	private volatile Command[] pooledCommands = new Command[0];
+
+	// Opt-in metrics, and the number of managers having some, so that fired
+	// callbacks only look for the metrics of their manager when needed
+	TweenMetrics metrics;
+	static volatile int metricsCnt;
+	private static final Object metricsLock = new Object();
+
+	// Recorder or replayer of the session, if any
+	TweenRecorder recorder;
+	TweenReplayer replayer;
+	int position = -1; // objects visited by the current update, while recorded or replayed
 
 	/**
 	 * Adds a tween or timeline to the manager and starts or restarts it.
@@ -57,8 +85,19 @@ public class TweenManager {
 	 * @return The manager, for instruction chaining.
 	 */
 	public TweenManager add(BaseTween<?> object) {
-		if (!objects.contains(object)) objects.add(object);
+		object.checkNotFreed();
+		boolean isAdded = object.manager != this;
+
+		if (isAdded) {
+			object.index = objects.size();
+			objects.add(object);
+			object.manager = this;
+			updateCounts(object.tweensCnt, object.timelinesCnt);
+			if (metrics != null) metrics.onStart(object.tweensCnt);
+		}
+
 		if (object.isAutoStartEnabled) object.start();
+		if (recorder != null) recorder.onAdd(object, isAdded);
 		return this;
 	}
 
@@ -131,6 +170,7 @@ public class TweenManager {
 	 */
 	public void pause() {
 		isPaused = true;
+		if (recorder != null) recorder.onPause(true);
 	}
 
 	/**
@@ -138,6 +178,7 @@ public class TweenManager {
 	 */
 	public void resume() {
 		isPaused = false;
+		if (recorder != null) recorder.onPause(false);
 	}
 
 	/**
@@ -153,19 +194,44 @@ public class TweenManager {
 	 * backward, or by 0.5 to play it twice slower than its normal speed.
 	 */
 	public void update(float delta) {
+		long startTime = metrics != null ? Clock.nanoTime() : 0;
+		TweenTracer tracer = TweenTracer.current;
+		Object trace = tracer != null ? tracer.beginUpdate(this) : null;
+		runCommands();
+
+		int removed = objects.size();
 		for (int i=objects.size()-1; i>=0; i--) {
 			BaseTween<?> obj = objects.get(i);
 			if (obj.isFinished() && obj.isAutoRemoveEnabled) {
+				removed = i;
 				objects.remove(i);
+				updateCounts(-obj.tweensCnt, -obj.timelinesCnt);
+				if (obj.slot >= 0) releaseSlot(obj.slot);
+				if (metrics != null) metrics.onRemove(obj.tweensCnt, !obj.isKilled());
+				obj.manager = null;
 				obj.free();
 			}
 		}
 
+		if (recorder != null) {
+			for (int i=removed, n=objects.size(); i<n; i++) objects.get(i).index = i;
+			recorder.onUpdate(delta);
+		}
+
+		// Commands given during the update are recorded with the number of
+		// objects visited before them, to be replayed at the same point
+		boolean isTracked = recorder != null || replayer != null;
+		if (isTracked) position = 0;
+
 		if (!isPaused) {
 			if (delta >= 0) {
-				for (int i=0, n=objects.size(); i<n; i++) objects.get(i).update(delta);
+				for (int i=0, n=objects.size(); i<n; i++) {
+					if (isTracked) visit();
+					objects.get(i).update(delta);
+				}
 				for (int i=0, n=objects.size(); i<n; i++) 
 				{
+				   if (isTracked) visit();
 				   BaseTween<?> obj = objects.get(i);
 				   if (obj.isFinished())
 				   {
@@ -173,9 +239,13 @@ public class TweenManager {
 				   }
 				}
 			} else {
-				for (int i=objects.size()-1; i>=0; i--) objects.get(i).update(delta);
+				for (int i=objects.size()-1; i>=0; i--) {
+					if (isTracked) visit();
+					objects.get(i).update(delta);
+				}
 				for (int i=objects.size()-1; i>=0; i--)
 				{
+				   if (isTracked) visit();
 				   BaseTween<?> obj = objects.get(i);
                if (obj.isFinished())
                {
@@ -184,6 +254,34 @@ public class TweenManager {
 				}
 			}
 		}
+
+		if (isTracked) {
+			visit();
+			position = -1;
+		}
+
+		if (metrics != null) metrics.onUpdate(Clock.nanoTime() - startTime, tweensCnt, timelinesCnt);
+		if (tracer != null) tracer.endUpdate(trace, this);
+	}
+
+	/**
+	 * Sets the metrics recording the updates of this manager, or null (the
+	 * default) to record nothing.
+	 *
+	 * @see TweenMetrics
+	 */
+	public void setMetrics(TweenMetrics metrics) {
+		if ((this.metrics == null) != (metrics == null)) {
+			synchronized (metricsLock) {metricsCnt += metrics != null ? 1 : -1;}
+		}
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Gets the metrics recording the updates of this manager, if any.
+	 */
+	public TweenMetrics getMetrics() {
+		return metrics;
 	}
 
 	/**
@@ -199,55 +297,373 @@ public class TweenManager {
 
 	/**
 	 * Gets the number of running tweens. This number includes the tweens
-	 * located inside timelines (and nested timelines).
-	 * <p/>
-	 * <b>Provided for debug purpose only.</b>
+	 * located inside timelines (and nested timelines). This number is kept
+	 * up to date as objects are added and removed, so it is cheap enough to
+	 * be displayed every frame.
 	 */
 	public int getRunningTweensCount() {
-		return getTweensCount(objects);
+		return tweensCnt;
 	}
 
 	/**
 	 * Gets the number of running timelines. This number includes the timelines
-	 * nested inside other timelines.
-	 * <p/>
-	 * <b>Provided for debug purpose only.</b>
+	 * nested inside other timelines. This number is kept up to date as
+	 * objects are added and removed, so it is cheap enough to be displayed
+	 * every frame.
 	 */
 	public int getRunningTimelinesCount() {
-		return getTimelinesCount(objects);
+		return timelinesCnt;
 	}
 
 	/**
-	 * Gets an immutable list of every managed object.
+	 * Gets an immutable list of every managed object. The list is a view, not
+	 * a copy, so getting it does not allocate anything.
 	 * <p/>
 	 * <b>Provided for debug purpose only.</b>
 	 */
 	public List<BaseTween<?>> getObjects() {
-		return Collections.unmodifiableList(objects);
+		return objectsView;
 	}
 
 	// -------------------------------------------------------------------------
-	// Helpers
+	// Handles
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets a handle on a managed tween or timeline. Tweens and timelines are
+	 * pooled, so a reference kept after the end of an animation may point to
+	 * an object already reused by someone else. A handle, on the contrary,
+	 * becomes stale as soon as the manager removes the object, and every
+	 * method of the manager taking a stale handle does nothing.
+	 * <p/>
+	 *
+	 * Handles are made of a slot index and of a generation, packed in a long,
+	 * so getting one doesn't allocate anything. They are only meaningful to
+	 * the manager that gave them. A valid handle is never equal to 0.
+	 * <p/>
+	 *
+	 * Like add(), this must be called by the thread updating the manager.
+	 * Other threads get the handles of the objects they post from
+	 * {@link #postAdd}.
+	 *
+	 * <pre> {@code
+	 * long handle = manager.getHandle(Tween.to(...).start(manager));
+	 * ...
+	 * manager.kill(handle); // safe, even if the tween is long gone
+	 * }</pre>
+	 *
+	 * @param object A tween or timeline added to this manager.
+	 * @return A handle on the object.
+	 */
+	public long getHandle(BaseTween<?> object) {
+		if (object.manager != this) throw new RuntimeException("The object is not managed by this manager");
+		if (object.slot < 0) attachSlot(object, reserveSlot());
+		return ((long) slotGenerations[object.slot] << 32) | object.slot;
+	}
+
+	/**
+	 * Gets the tween or timeline associated to a handle, or null if the
+	 * handle is stale.
+	 */
+	public BaseTween<?> get(long handle) {
+		int slot = (int) handle;
+		int generation = (int) (handle >>> 32);
+		if (slot < 0 || slot >= slots.length || slotGenerations[slot] != generation) return null;
+		return slots[slot];
+	}
+
+	/**
+	 * Returns true if the object associated to the handle is finished, or if
+	 * the handle is stale.
+	 */
+	public boolean isFinished(long handle) {
+		BaseTween<?> obj = get(handle);
+		return obj == null || obj.isFinished();
+	}
+
+	/**
+	 * Kills the object associated to the handle. Does nothing if the handle
+	 * is stale.
+	 */
+	public void kill(long handle) {
+		BaseTween<?> obj = get(handle);
+		if (obj != null) obj.kill();
+	}
+
+	/**
+	 * Pauses the object associated to the handle. Does nothing if the handle
+	 * is stale.
+	 */
+	public void pause(long handle) {
+		BaseTween<?> obj = get(handle);
+		if (obj != null) obj.pause();
+	}
+
+	/**
+	 * Resumes the object associated to the handle. Does nothing if the handle
+	 * is stale.
+	 */
+	public void resume(long handle) {
+		BaseTween<?> obj = get(handle);
+		if (obj != null) obj.resume();
+	}
+
+	// -------------------------------------------------------------------------
+	// Commands
 	// -------------------------------------------------------------------------
 
-	private static int getTweensCount(List<BaseTween<?>> objs) {
-		int cnt = 0;
-		for (int i=0, n=objs.size(); i<n; i++) {
-			BaseTween<?> obj = objs.get(i);
-			if (obj instanceof Tween) cnt += 1;
-			else cnt += getTweensCount(((Timeline)obj).getChildren());
+	/**
+	 * Adds a tween or timeline to the manager at the beginning of its next
+	 * update, like {@link #add(BaseTween)}. Unlike the other methods of the
+	 * manager, the post methods can be called from any thread, while another
+	 * thread updates the manager: commands are queued without ever blocking,
+	 * and run, in order, by the next call to update().
+	 * <p/>
+	 *
+	 * Note that the tween or timeline must not be used by the calling thread
+	 * anymore once posted: use the returned handle to kill, pause or resume
+	 * it with the other post methods. The handle acts as a stale one until
+	 * the object is added. To create tweens from several threads, see
+	 * ThreadSafePools.
+	 *
+	 * @return A handle on the object, see {@link #getHandle}.
+	 */
+	public long postAdd(BaseTween<?> object) {
+		long handle = reserveSlot();
+		post(Command.ADD, object, null, -1, handle);
+		return handle;
+	}
+
+	/**
+	 * Kills every managed tweens and timelines at the beginning of the next
+	 * update. Can be called from any thread, see {@link #postAdd}.
+	 */
+	public void postKillAll() {
+		post(Command.KILL_ALL, null, null, -1, 0);
+	}
+
+	/**
+	 * Kills every tweens associated to the given target at the beginning of
+	 * the next update. Can be called from any thread, see {@link #postAdd}.
+	 */
+	public void postKillTarget(Object target) {
+		post(Command.KILL_TARGET, null, target, -1, 0);
+	}
+
+	/**
+	 * Kills every tweens associated to the given target and tween type at the
+	 * beginning of the next update. Can be called from any thread, see
+	 * {@link #postAdd}.
+	 */
+	public void postKillTarget(Object target, int tweenType) {
+		post(Command.KILL_TARGET_TYPE, null, target, tweenType, 0);
+	}
+
+	/**
+	 * Kills the object associated to the handle at the beginning of the next
+	 * update, if the handle is still valid then. Can be called from any
+	 * thread, see {@link #postAdd}.
+	 */
+	public void postKill(long handle) {
+		post(Command.KILL, null, null, -1, handle);
+	}
+
+	/**
+	 * Pauses the manager at the beginning of the next update. Can be called
+	 * from any thread, see {@link #postAdd}.
+	 */
+	public void postPause() {
+		post(Command.PAUSE_ALL, null, null, -1, 0);
+	}
+
+	/**
+	 * Resumes the manager at the beginning of the next update. Can be called
+	 * from any thread, see {@link #postAdd}.
+	 */
+	public void postResume() {
+		post(Command.RESUME_ALL, null, null, -1, 0);
+	}
+
+	/**
+	 * Pauses the object associated to the handle at the beginning of the
+	 * next update, if the handle is still valid then. Can be called from any
+	 * thread, see {@link #postAdd}.
+	 */
+	public void postPause(long handle) {
+		post(Command.PAUSE, null, null, -1, handle);
+	}
+
+	/**
+	 * Resumes the object associated to the handle at the beginning of the
+	 * next update, if the handle is still valid then. Can be called from any
+	 * thread, see {@link #postAdd}.
+	 */
+	public void postResume(long handle) {
+		post(Command.RESUME, null, null, -1, handle);
+	}
+
+	static final class Command {
+		static final int ADD = 0;
+		static final int KILL = 1;
+		static final int KILL_ALL = 2;
+		static final int KILL_TARGET = 3;
+		static final int KILL_TARGET_TYPE = 4;
+		static final int PAUSE = 5;
+		static final int RESUME = 6;
+		static final int PAUSE_ALL = 7;
+		static final int RESUME_ALL = 8;
+
+		int id = -1; // index in the pooled commands, once run
+		int op;
+		BaseTween<?> object;
+		Object target;
+		int tweenType;
+		long handle;
+		Command next;
+	}
+
+	private void post(int op, BaseTween<?> object, Object target, int tweenType, long handle) {
+		int id = freeCommands.pop();
+		Command cmd = id >= 0 ? pooledCommands[id] : new Command();
+		cmd.op = op;
+		cmd.object = object;
+		cmd.target = target;
+		cmd.tweenType = tweenType;
+		cmd.handle = handle;
+		commands.push(cmd);
+	}
+
+	private void runCommands() {
+		Command next;
+		for (Command cmd = commands.takeAll(); cmd != null; cmd = next) {
+			next = cmd.next;
+
+			switch (cmd.op) {
+				case Command.ADD: addPosted(cmd.object, cmd.handle); break;
+				case Command.KILL: kill(cmd.handle); break;
+				case Command.KILL_ALL: killAll(); break;
+				case Command.KILL_TARGET: killTarget(cmd.target); break;
+				case Command.KILL_TARGET_TYPE: killTarget(cmd.target, cmd.tweenType); break;
+				case Command.PAUSE: pause(cmd.handle); break;
+				case Command.RESUME: resume(cmd.handle); break;
+				case Command.PAUSE_ALL: pause(); break;
+				case Command.RESUME_ALL: resume(); break;
+			}
+
+			freeCommand(cmd);
 		}
-		return cnt;
 	}
 
-	private static int getTimelinesCount(List<BaseTween<?>> objs) {
-		int cnt = 0;
-		for (int i=0, n=objs.size(); i<n; i++) {
-			BaseTween<?> obj = objs.get(i);
-			if (obj instanceof Timeline) {
-				cnt += 1 + getTimelinesCount(((Timeline)obj).getChildren());
+	// Once given back, the command can be taken again by any thread
+	private void freeCommand(Command cmd) {
+		cmd.object = null;
+		cmd.target = null;
+
+		if (cmd.id < 0) {
+			cmd.id = freeCommands.create();
+			Command[] pooled = pooledCommands;
+
+			if (cmd.id >= pooled.length) {
+				Command[] newPooled = new Command[Math.max(16, Math.max(cmd.id+1, pooled.length*2))];
+				System.arraycopy(pooled, 0, newPooled, 0, pooled.length);
+				pooled = newPooled;
 			}
+
+			pooled[cmd.id] = cmd;
+			pooledCommands = pooled;
 		}
-		return cnt;
+
+		freeCommands.push(cmd.id, 0);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	void updateCounts(int tweens, int timelines) {
+		tweensCnt += tweens;
+		timelinesCnt += timelines;
+	}
+
+	/**
+	 * Frees every object at once, without killing them, before a snapshot
+	 * is restored.
+	 */
+	void clear() {
+		for (int i=objects.size()-1; i>=0; i--) {
+			BaseTween<?> obj = objects.remove(i);
+			updateCounts(-obj.tweensCnt, -obj.timelinesCnt);
+			if (obj.slot >= 0) releaseSlot(obj.slot);
+			obj.manager = null;
+			obj.free();
+		}
+	}
+
+	/**
+	 * Adds an object restored from a snapshot, which is not started again.
+	 */
+	void attach(BaseTween<?> object) {
+		object.index = objects.size();
+		objects.add(object);
+		object.manager = this;
+		updateCounts(object.tweensCnt, object.timelinesCnt);
+	}
+
+	/**
+	 * Numbers the objects again, once they are recorded.
+	 */
+	void updateIndexes() {
+		for (int i=0, n=objects.size(); i<n; i++) objects.get(i).index = i;
+	}
+
+	private void visit() {
+		if (replayer != null) replayer.onVisit(position);
+		position += 1;
+	}
+
+	private void addPosted(BaseTween<?> object, long handle) {
+		add(object);
+		if (object.slot < 0 && object.manager == this) attachSlot(object, handle);
+		else freeSlots.push((int) handle, nextGeneration((int) (handle >>> 32)));
+	}
+
+	/**
+	 * Takes a free slot, or a new one, and returns its handle. Can be called
+	 * from any thread.
+	 */
+	private long reserveSlot() {
+		int slot = freeSlots.pop();
+		if (slot < 0) return (1L << 32) | freeSlots.create();
+		return ((long) freeSlots.getValue(slot) << 32) | slot;
+	}
+
+	private void attachSlot(BaseTween<?> obj, long handle) {
+		int slot = (int) handle;
+
+		if (slot >= slots.length) {
+			int capacity = Math.max(16, Math.max(slot+1, slots.length*2));
+			BaseTween<?>[] newSlots = new BaseTween<?>[capacity];
+			int[] newGenerations = new int[capacity];
+			System.arraycopy(slots, 0, newSlots, 0, slots.length);
+			System.arraycopy(slotGenerations, 0, newGenerations, 0, slots.length);
+			slots = newSlots;
+			slotGenerations = newGenerations;
+		}
+
+		slots[slot] = obj;
+		slotGenerations[slot] = (int) (handle >>> 32);
+		obj.slot = slot;
+	}
+
+	private void releaseSlot(int slot) {
+		slots[slot] = null;
+		slotGenerations[slot] = nextGeneration(slotGenerations[slot]);
+		freeSlots.push(slot, slotGenerations[slot]);
+	}
+
+	// The next generation of a slot makes the handles given so far stale
+	private static int nextGeneration(int generation) {
+		generation += 1;
+		return generation != 0 ? generation : 1;
 	}
 }
@@ -0,0 +1,327 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Measures what a TweenManager costs: how long its updates take, how many
+ * tweens and timelines it holds, how many tweens come and go, which
+ * callbacks are fired, and how the pools perform. Metrics are opt-in: while
+ * no manager has metrics, they only cost a few null checks per update and a
+ * field read per fired callback, so the code can stay in production builds
+ * and be enabled on demand.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenMetrics metrics = new TweenMetrics();
+ * metrics.setListener(new TweenMetrics.Listener() {
+ *     public void onReport(TweenMetrics m) {
+ *         log("p99 update: " + m.getUpdateTimePercentile(0.99f) + "us");
+ *     }
+ * }, 600);
+ * myManager.setMetrics(metrics);
+ * }</pre>
+ *
+ * Update durations are recorded in a histogram of 24 buckets: bucket i
+ * counts the updates that took less than 2^i microseconds (and at least
+ * 2^(i-1)), the last one counts every slower update. Counts of tweens
+ * include the tweens nested in timelines.
+ * <p/>
+ *
+ * Pools are shared by every manager, so their statistics are those of the
+ * whole application since the metrics were created or reset. On the JVM,
+ * metrics can also be exposed through JMX, see TweenMetricsJmx.
+ *
+ * @see TweenManager#setMetrics(TweenMetrics)
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenMetrics {
+	public static final int HISTOGRAM_SIZE = 24;
+
+	// Rough sizes, in bytes, of a tween with no combined attribute and no
+	// waypoint, of each of its values, and of an empty timeline, as laid out
+	// by a 64-bit JVM with compressed references.
+	private static final int TWEEN_BYTES = 220;
+	private static final int TWEEN_VALUE_BYTES = 4;
+	private static final int TIMELINE_BYTES = 240;
+
+	/**
+	 * Gets the reports of a metrics object, for instance to log them or to
+	 * send them to a monitoring service.
+	 */
+	public interface Listener {
+		/**
+		 * Called by the manager at the end of an update, every few updates.
+		 * Metrics are not reset after a report.
+		 */
+		public void onReport(TweenMetrics metrics);
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private final long[] updateHistogram = new long[HISTOGRAM_SIZE];
+	private long updatesCnt;
+	private long updatesNanos;
+	private long maxUpdateNanos;
+	private long lastUpdateNanos;
+
+	private int lastTweensManaged;
+	private int lastTimelinesManaged;
+	private long tweensManaged;
+	private long timelinesManaged;
+
+	private long tweensStarted;
+	private long tweensCompleted;
+	private long tweensFreed;
+	private final long[] callbacks = new long[9];
+
+	private int tweenPoolHits, tweenPoolMisses;
+	private int timelinePoolHits, timelinePoolMisses;
+
+	private Listener listener;
+	private int reportInterval = 1;
+	private int updatesBeforeReport = 1;
+
+	/**
+	 * Creates a new metrics object, to be given to a manager.
+	 */
+	public TweenMetrics() {
+		reset();
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets a listener called every given number of updates, with these
+	 * metrics. Null removes the current listener.
+	 */
+	public void setListener(Listener listener, int interval) {
+		this.listener = listener;
+		this.reportInterval = Math.max(interval, 1);
+		this.updatesBeforeReport = reportInterval;
+	}
+
+	/**
+	 * Clears every metric.
+	 */
+	public void reset() {
+		for (int i=0; i<updateHistogram.length; i++) updateHistogram[i] = 0;
+		for (int i=0; i<callbacks.length; i++) callbacks[i] = 0;
+		updatesCnt = updatesNanos = maxUpdateNanos = lastUpdateNanos = 0;
+		lastTweensManaged = lastTimelinesManaged = 0;
+		tweensManaged = timelinesManaged = 0;
+		tweensStarted = tweensCompleted = tweensFreed = 0;
+
+		tweenPoolHits = Tween.getPool().getHits();
+		tweenPoolMisses = Tween.getPool().getMisses();
+		timelinePoolHits = Timeline.getPool().getHits();
+		timelinePoolMisses = Timeline.getPool().getMisses();
+	}
+
+	/**
+	 * Gets the number of recorded updates.
+	 */
+	public long getUpdatesCount() {
+		return updatesCnt;
+	}
+
+	/**
+	 * Gets the duration of the last update, in microseconds.
+	 */
+	public float getLastUpdateTime() {
+		return lastUpdateNanos / 1000f;
+	}
+
+	/**
+	 * Gets the mean duration of an update, in microseconds.
+	 */
+	public float getMeanUpdateTime() {
+		return updatesCnt > 0 ? updatesNanos / 1000f / updatesCnt : 0;
+	}
+
+	/**
+	 * Gets the duration of the slowest update, in microseconds.
+	 */
+	public float getMaxUpdateTime() {
+		return maxUpdateNanos / 1000f;
+	}
+
+	/**
+	 * Gets an upper bound of the given percentile of the update durations,
+	 * in microseconds, from the histogram. For instance, 0.99f gives a
+	 * duration that 99% of the updates did not exceed.
+	 */
+	public float getUpdateTimePercentile(float percentile) {
+		long rank = (long) Math.ceil(percentile * updatesCnt);
+		long count = 0;
+
+		for (int i=0; i<HISTOGRAM_SIZE-1; i++) {
+			count += updateHistogram[i];
+			if (count >= rank) return Math.min(1 << i, getMaxUpdateTime());
+		}
+
+		return getMaxUpdateTime();
+	}
+
+	/**
+	 * Gets a copy of the histogram of the update durations. See the class
+	 * documentation for its buckets.
+	 */
+	public long[] getUpdateHistogram() {
+		long[] histogram = new long[HISTOGRAM_SIZE];
+		System.arraycopy(updateHistogram, 0, histogram, 0, HISTOGRAM_SIZE);
+		return histogram;
+	}
+
+	/**
+	 * Gets the number of tweens held by the manager at the end of the last
+	 * update. Paused and finished tweens are included, even though the
+	 * update had nothing to do with them.
+	 */
+	public int getLastTweensManaged() {
+		return lastTweensManaged;
+	}
+
+	/**
+	 * Gets the number of timelines held by the manager at the end of the
+	 * last update, paused and finished ones included.
+	 */
+	public int getLastTimelinesManaged() {
+		return lastTimelinesManaged;
+	}
+
+	/**
+	 * Gets the mean number of tweens held by the manager at the end of an
+	 * update.
+	 */
+	public float getMeanTweensManaged() {
+		return updatesCnt > 0 ? (float) tweensManaged / updatesCnt : 0;
+	}
+
+	/**
+	 * Gets the mean number of timelines held by the manager at the end of an
+	 * update.
+	 */
+	public float getMeanTimelinesManaged() {
+		return updatesCnt > 0 ? (float) timelinesManaged / updatesCnt : 0;
+	}
+
+	/**
+	 * Gets the number of tweens added to the manager.
+	 */
+	public long getTweensStarted() {
+		return tweensStarted;
+	}
+
+	/**
+	 * Gets the number of tweens removed from the manager once finished,
+	 * killed ones excepted.
+	 */
+	public long getTweensCompleted() {
+		return tweensCompleted;
+	}
+
+	/**
+	 * Gets the number of tweens removed and freed by the manager, killed ones
+	 * included.
+	 */
+	public long getTweensFreed() {
+		return tweensFreed;
+	}
+
+	/**
+	 * Gets the number of callbacks fired with the given event type, like
+	 * {@link TweenCallback#COMPLETE}, by the objects of the manager.
+	 */
+	public long getCallbacksCount(int type) {
+		long count = 0;
+		for (int i=0; i<callbacks.length; i++) {
+			if ((type & (1 << i)) != 0) count += callbacks[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of tweens reused from the pool.
+	 */
+	public int getTweenPoolHits() {
+		return Tween.getPool().getHits() - tweenPoolHits;
+	}
+
+	/**
+	 * Gets the number of tweens created because the pool was empty.
+	 */
+	public int getTweenPoolMisses() {
+		return Tween.getPool().getMisses() - tweenPoolMisses;
+	}
+
+	/**
+	 * Gets the number of timelines reused from the pool.
+	 */
+	public int getTimelinePoolHits() {
+		return Timeline.getPool().getHits() - timelinePoolHits;
+	}
+
+	/**
+	 * Gets the number of timelines created because the pool was empty.
+	 */
+	public int getTimelinePoolMisses() {
+		return Timeline.getPool().getMisses() - timelinePoolMisses;
+	}
+
+	/**
+	 * Gets an estimate of the memory retained by the tweens and timelines of
+	 * the manager and by the pools of the default engine, in bytes. Sizes
+	 * are those of a 64-bit JVM, so the estimate is only meant to follow
+	 * trends.
+	 */
+	public long getEstimatedRetainedBytes() {
+		TweenEngine engine = TweenEngine.getDefault();
+		int values = engine.combinedAttrsLimit * (3 + 2 * (engine.waypointsLimit + 1));
+		long tweens = lastTweensManaged + Tween.getPool().size();
+		long timelines = lastTimelinesManaged + Timeline.getPool().size();
+		return tweens * (TWEEN_BYTES + values * TWEEN_VALUE_BYTES) + timelines * TIMELINE_BYTES;
+	}
+
+	// -------------------------------------------------------------------------
+	// Recording
+	// -------------------------------------------------------------------------
+
+	void onStart(int tweens) {
+		tweensStarted += tweens;
+	}
+
+	void onRemove(int tweens, boolean isCompleted) {
+		if (isCompleted) tweensCompleted += tweens;
+		tweensFreed += tweens;
+	}
+
+	void onCallback(int type) {
+		for (int i=0; i<callbacks.length; i++) {
+			if (type == 1 << i) {callbacks[i] += 1; return;}
+		}
+	}
+
+	void onUpdate(long nanos, int tweens, int timelines) {
+		long micros = nanos / 1000;
+		int bucket = 0;
+		while (bucket < HISTOGRAM_SIZE-1 && micros >= 1 << bucket) bucket += 1;
+
+		updateHistogram[bucket] += 1;
+		updatesCnt += 1;
+		updatesNanos += nanos;
+		maxUpdateNanos = Math.max(maxUpdateNanos, nanos);
+		lastUpdateNanos = nanos;
+
+		lastTweensManaged = tweens;
+		lastTimelinesManaged = timelines;
+		tweensManaged += tweens;
+		timelinesManaged += timelines;
+
+		if (listener != null && --updatesBeforeReport == 0) {
+			updatesBeforeReport = reportInterval;
+			listener.onReport(this);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package aurelienribon.tweenengine;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes {@link TweenMetrics} through JMX, so that they can be watched with
+ * JConsole, VisualVM or any JMX-enabled monitoring tool:
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenMetrics metrics = new TweenMetrics();
+ * myManager.setMetrics(metrics);
+ * TweenMetricsJmx.register(metrics, "main");
+ * }</pre>
+ *
+ * Metrics are registered on the platform MBean server, as
+ * "aurelienribon.tweenengine:type=TweenMetrics,name=main" in this example.
+ * Attributes are read from the JMX thread while the manager updates them,
+ * so they may be one update late.
+ * <p/>
+ *
+ * <b>Not available with GWT.</b>
+ *
+ * @see TweenMetrics
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenMetricsJmx {
+	/**
+	 * The attributes and operations seen through JMX. Durations are in
+	 * microseconds.
+	 */
+	public interface MetricsMXBean {
+		public long getUpdatesCount();
+		public float getLastUpdateTime();
+		public float getMeanUpdateTime();
+		public float getMaxUpdateTime();
+		public float getUpdateTimeP50();
+		public float getUpdateTimeP99();
+		public long[] getUpdateHistogram();
+		public int getLastTweensManaged();
+		public int getLastTimelinesManaged();
+		public long getTweensStarted();
+		public long getTweensCompleted();
+		public long getTweensFreed();
+		public long getCallbacksForward();
+		public long getCallbacksBackward();
+		public long getCallbacksSyncComplete();
+		public int getTweenPoolHits();
+		public int getTweenPoolMisses();
+		public int getTimelinePoolHits();
+		public int getTimelinePoolMisses();
+		public long getEstimatedRetainedBytes();
+		public void reset();
+	}
+
+	/**
+	 * Registers the given metrics on the platform MBean server, under the
+	 * given name, and returns the name of the registered bean.
+	 *
+	 * @throws RuntimeException if the name is already taken or invalid.
+	 */
+	public static ObjectName register(TweenMetrics metrics, String name) {
+		try {
+			ObjectName objectName = getObjectName(name);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(metrics), objectName);
+			return objectName;
+		} catch (JMException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Removes the metrics registered under the given name, if any.
+	 */
+	public static void unregister(String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = getObjectName(name);
+			if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+		} catch (JMException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static ObjectName getObjectName(String name) throws JMException {
+		return new ObjectName("aurelienribon.tweenengine:type=TweenMetrics,name=" + ObjectName.quote(name));
+	}
+
+	private TweenMetricsJmx() {
+	}
+
+	// -------------------------------------------------------------------------
+	// Bean
+	// -------------------------------------------------------------------------
+
+	private static final class Bean implements MetricsMXBean {
+		private final TweenMetrics metrics;
+
+		Bean(TweenMetrics metrics) {
+			this.metrics = metrics;
+		}
+
+		@Override public long getUpdatesCount() {return metrics.getUpdatesCount();}
+		@Override public float getLastUpdateTime() {return metrics.getLastUpdateTime();}
+		@Override public float getMeanUpdateTime() {return metrics.getMeanUpdateTime();}
+		@Override public float getMaxUpdateTime() {return metrics.getMaxUpdateTime();}
+		@Override public float getUpdateTimeP50() {return metrics.getUpdateTimePercentile(0.50f);}
+		@Override public float getUpdateTimeP99() {return metrics.getUpdateTimePercentile(0.99f);}
+		@Override public long[] getUpdateHistogram() {return metrics.getUpdateHistogram();}
+		@Override public int getLastTweensManaged() {return metrics.getLastTweensManaged();}
+		@Override public int getLastTimelinesManaged() {return metrics.getLastTimelinesManaged();}
+		@Override public long getTweensStarted() {return metrics.getTweensStarted();}
+		@Override public long getTweensCompleted() {return metrics.getTweensCompleted();}
+		@Override public long getTweensFreed() {return metrics.getTweensFreed();}
+		@Override public long getCallbacksForward() {return metrics.getCallbacksCount(TweenCallback.ANY_FORWARD);}
+		@Override public long getCallbacksBackward() {return metrics.getCallbacksCount(TweenCallback.ANY_BACKWARD);}
+		@Override public long getCallbacksSyncComplete() {return metrics.getCallbacksCount(TweenCallback.SYNC_COMPLETE);}
+		@Override public int getTweenPoolHits() {return metrics.getTweenPoolHits();}
+		@Override public int getTweenPoolMisses() {return metrics.getTweenPoolMisses();}
+		@Override public int getTimelinePoolHits() {return metrics.getTimelinePoolHits();}
+		@Override public int getTimelinePoolMisses() {return metrics.getTimelinePoolMisses();}
+		@Override public long getEstimatedRetainedBytes() {return metrics.getEstimatedRetainedBytes();}
+		@Override public void reset() {metrics.reset();}
+	}
+}
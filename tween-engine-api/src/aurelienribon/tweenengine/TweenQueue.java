@@ -0,0 +1,343 @@
+package aurelienribon.tweenengine;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A TweenQueue plays its children one after the other, like a sequence
+ * {@link Timeline}, except that new children can be appended while it is
+ * running. Every child is freed as soon as it is done, so a queue fed for
+ * hours only retains the children that are still waiting to be played.
+ * <p/>
+ *
+ * Typical use is a chain of animations whose steps are not known in advance,
+ * like dialog boxes appearing as new messages arrive:
+ * <br/><br/>
+ *
+ * <pre> {@code
+ * TweenQueue queue = TweenQueue.create().start(myManager);
+ *
+ * // later, at any time while the queue is playing
+ * queue.push(Tween.to(myDialog, OPACITY, 0.3f).target(1))
+ *      .pushPause(2.0f)
+ *      .push(Tween.to(myDialog, OPACITY, 0.3f).target(0));
+ *
+ * // once there is nothing more to play
+ * queue.close();
+ * }</pre>
+ *
+ * A queue stays alive while it waits for new children: until it is closed,
+ * its duration is infinite and it never completes. Once closed, it accepts no
+ * more children, and completes like any sequence when its last child is done.
+ * Since played children are released, a queue can neither be repeated nor
+ * played backwards.
+ *
+ * @see Timeline
+ * @see TweenManager
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenQueue extends BaseTween<TweenQueue> {
+	// -------------------------------------------------------------------------
+	// Static -- pool
+	// -------------------------------------------------------------------------
+
+	private static final Pool.Callback<TweenQueue> poolCallback = new Pool.Callback<TweenQueue>() {
+		@Override public void onPool(TweenQueue obj) {obj.reset();}
+		@Override public void onUnPool(TweenQueue obj) {obj.reset();}
+	};
+
+	private static final Pool<TweenQueue> pool = new Pool<TweenQueue>(5, poolCallback) {
+		@Override protected TweenQueue create() {return new TweenQueue();}
+	};
+
+	/**
+	 * Used for debug purpose. Gets the current number of empty queues that
+	 * are waiting in the TweenQueue pool.
+	 */
+	public static int getPoolSize() {
+		return pool.size();
+	}
+
+	/**
+	 * Increases the minimum capacity of the pool. Capacity defaults to 5.
+	 */
+	public static void ensurePoolCapacity(int minCapacity) {
+		pool.ensureCapacity(minCapacity);
+	}
+
+	/**
+	 * Gets the pool of queues, in order to bound it, trim it or prewarm it,
+	 * and to get its statistics.
+	 *
+	 * @see Pool
+	 */
+	public static Pool<TweenQueue> getPool() {
+		return pool;
+	}
+
+	// -------------------------------------------------------------------------
+	// Static -- factories
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Creates a new empty queue.
+	 */
+	public static TweenQueue create() {
+		return pool.get();
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private final List<BaseTween<?>> children = new ArrayList<BaseTween<?>>(10);
+	private final List<BaseTween<?>> childrenView = new AbstractList<BaseTween<?>>() {
+		@Override
+		public BaseTween<?> get(int index) {
+			if (index < 0) throw new IndexOutOfBoundsException("Index: " + index);
+			return children.get(head + index);
+		}
+
+		@Override
+		public int size() {
+			return children.size() - head;
+		}
+	};
+	private int head; // index of the first child waiting to be played
+	private float headTime; // time already given to the first child
+	private float playedTime; // time given to the children since the start
+	private boolean isClosed;
+	int removedCnt; // number of children done, to find the index of the others
+
+	// -------------------------------------------------------------------------
+	// Setup
+	// -------------------------------------------------------------------------
+
+	private TweenQueue() {
+		reset();
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+
+		children.clear();
+		head = 0;
+		headTime = playedTime = 0;
+		duration = Float.POSITIVE_INFINITY;
+		isClosed = false;
+		removedCnt = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Appends a Tween or a Timeline to the queue. It will be started once
+	 * every previously pushed object is done. This can be called at any time
+	 * before the queue is closed, even while it waits with nothing to play.
+	 *
+	 * @return The current queue, for chaining instructions.
+	 */
+	public TweenQueue push(BaseTween<?> object) {
+		checkNotFreed();
+		if (isClosed || isFinished()) throw new RuntimeException("You can't push anything to a queue once it is closed or finished");
+		if (object.getRepeatCount() < 0) throw new RuntimeException("You can't push an object with infinite repetitions in a queue");
+		object.checkNotFreed();
+		object.build();
+		addChild(object);
+
+		TweenRecorder recorder = getRecorder();
+		if (recorder != null) recorder.onPush(this, object);
+		return this;
+	}
+
+	/**
+	 * Appends a pause to the queue.
+	 *
+	 * @param time A positive duration.
+	 * @return The current queue, for chaining instructions.
+	 */
+	public TweenQueue pushPause(float time) {
+		return push(Tween.mark().delay(Math.max(time, 0)));
+	}
+
+	/**
+	 * Closes the queue: it accepts no more children, and completes once the
+	 * ones it holds are done, or at its next update if it holds none. Its
+	 * duration becomes finite.
+	 *
+	 * @return The current queue, for chaining instructions.
+	 */
+	public TweenQueue close() {
+		checkNotFreed();
+		if (isClosed) return this;
+		isClosed = true;
+
+		float remaining = -headTime;
+		for (int i=head, n=children.size(); i<n; i++) remaining += children.get(i).getFullDuration();
+		duration = playedTime + Math.max(remaining, 0);
+
+		TweenRecorder recorder = getRecorder();
+		if (recorder != null) recorder.onCommand(TweenRecorder.CLOSE, this);
+		return this;
+	}
+
+	/**
+	 * Returns true if the queue was closed.
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Gets an immutable list of the children waiting to be played, including
+	 * the one currently playing. The list is a view, not a copy, so getting it
+	 * does not allocate anything.
+	 */
+	public List<BaseTween<?>> getChildren() {
+		return childrenView;
+	}
+
+	// -------------------------------------------------------------------------
+	// Overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public TweenQueue build() {
+		if (getRepeatCount() != 0) throw new RuntimeException("You can't repeat a queue");
+		return this;
+	}
+
+	@Override
+	public void free() {
+		for (int i=children.size()-1; i>=head; i--) {
+			BaseTween<?> obj = children.remove(i);
+			obj.free();
+		}
+
+		pool.free(this);
+	}
+
+	@Override
+	protected void updateOverride(int step, int lastStep, boolean isIterationStep, float delta) {
+		if (!isIterationStep && step > lastStep) {
+			updateChildren(delta+1);
+			return;
+		}
+
+		if (isIterationStep && step == lastStep) {
+			playedTime += delta;
+			updateChildren(delta);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// BaseTween impl.
+	// -------------------------------------------------------------------------
+
+	@Override
+	protected void forceStartValues() {
+	}
+
+	@Override
+	protected void forceEndValues() {
+	}
+
+	@Override
+	protected boolean containsTarget(Object target) {
+		for (int i=head, n=children.size(); i<n; i++) {
+			BaseTween<?> obj = children.get(i);
+			if (obj.containsTarget(target)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	protected boolean containsTarget(Object target, int tweenType) {
+		for (int i=head, n=children.size(); i<n; i++) {
+			BaseTween<?> obj = children.get(i);
+			if (obj.containsTarget(target, tweenType)) return true;
+		}
+		return false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Snapshots
+	// -------------------------------------------------------------------------
+
+	@Override
+	void writeState(TweenSnapshot s) {
+		super.writeState(s);
+		s.writeFloat(headTime);
+		s.writeFloat(playedTime);
+		s.writeByte(isClosed ? 1 : 0);
+	}
+
+	@Override
+	void readState(TweenSnapshot s) {
+		super.readState(s);
+		headTime = s.readFloat();
+		playedTime = s.readFloat();
+		isClosed = s.readByte() != 0;
+	}
+
+	void addChild(BaseTween<?> obj) {
+		obj.container = this;
+		obj.childIndex = removedCnt + children.size() - head;
+		children.add(obj);
+		updateCounts(obj.tweensCnt, obj.timelinesCnt);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void updateChildren(float delta) {
+		if (delta < 0) return;
+
+		while (head < children.size()) {
+			BaseTween<?> obj = children.get(head);
+			float dt = delta;
+
+			if (!obj.isFinished()) {
+				if (!obj.isStarted()) obj.start();
+				obj.update(delta);
+				headTime += delta;
+				if (!obj.isFinished()) return;
+				dt = 0;
+			}
+
+			// The child is done: the time it did not use goes to the next
+			// one. A child killed before its end shortens the queue.
+			float overshoot = headTime - obj.getFullDuration();
+			if (overshoot < 0) duration += overshoot;
+			delta = dt + Math.max(overshoot, 0);
+			headTime = 0;
+
+			removeHead();
+			updateCounts(-obj.tweensCnt, -obj.timelinesCnt);
+			obj.free();
+		}
+	}
+
+	// Done children are not shifted out one by one: the head moves past them,
+	// and the list is only compacted once most of it is behind the head.
+	private void removeHead() {
+		children.set(head, null);
+		head += 1;
+		removedCnt += 1;
+
+		int n = children.size();
+		if (head == n) {
+			children.clear();
+			head = 0;
+		} else if (head >= 16 && head*2 >= n) {
+			for (int i=head; i<n; i++) children.set(i-head, children.get(i));
+			for (int i=n-1; i>=n-head; i--) children.remove(i);
+			head = 0;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Records a session of a TweenManager into a compact binary log, to replay
+ * it later with a {@link TweenReplayer}: the delta of every update, the
+ * objects added with all their parameters, the children pushed to queues,
+ * the kills, pauses and resumes, and the snapshots restored. The log starts with a snapshot of the
+ * manager, so a recording can start at any time.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenRecorder recorder = new TweenRecorder();
+ * recorder.start(manager, resolver);
+ * // ... play, then attach the log to the bug report:
+ * out.write(recorder.getData(), 0, recorder.size());
+ * }</pre>
+ *
+ * Targets, callbacks and user data are written as IDs given by a
+ * {@link TweenSnapshot.Resolver}, like in a snapshot. An update costs five
+ * bytes of log, and an added tween a few dozens: the recorder can be left
+ * running in test builds. The log is kept in memory, in an array which
+ * grows when needed.
+ * <p/>
+ *
+ * A command given by a callback during an update is written with the
+ * number of objects of the manager visited so far: it is replayed at the
+ * same point of the update, after the object whose callback gave it, and
+ * before the next ones.
+ *
+ * @see TweenReplayer
+ * @see TweenSnapshot
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenRecorder {
+	static final int MAGIC = 0x54575231; // "TWR1"
+
+	static final int UPDATE = 0;
+	static final int ADD = 1;
+	static final int RESTART = 2;
+	static final int KILL = 3;
+	static final int PAUSE = 4;
+	static final int RESUME = 5;
+	static final int PAUSE_ALL = 6;
+	static final int RESUME_ALL = 7;
+	static final int RESTORE = 8;
+	static final int PUSH = 9;
+	static final int CLOSE = 10;
+	static final int AT = 11; // prefix of a command given during an update
+
+	private final TweenSnapshot log;
+	private final TweenSnapshot snapshot = new TweenSnapshot();
+	private TweenManager manager;
+
+	/**
+	 * Creates a recorder.
+	 */
+	public TweenRecorder() {
+		this(4096);
+	}
+
+	/**
+	 * Creates a recorder, with the given initial capacity of its log, in
+	 * bytes.
+	 */
+	public TweenRecorder(int capacity) {
+		log = new TweenSnapshot(capacity);
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Starts recording a manager, from its current state. The previous log,
+	 * if any, is discarded.
+	 */
+	public void start(TweenManager manager, TweenSnapshot.Resolver resolver) {
+		if (this.manager != null) throw new RuntimeException("The recorder is already started");
+		if (manager.recorder != null) throw new RuntimeException("The manager is already recorded");
+
+		log.clear();
+		log.resolver = resolver;
+		log.writeInt(MAGIC);
+		this.manager = manager;
+		onRestore(snapshot.capture(manager, resolver));
+		manager.updateIndexes();
+
+		manager.recorder = this;
+	}
+
+	/**
+	 * Stops recording. The log is kept until the next start.
+	 */
+	public void stop() {
+		if (manager == null) return;
+		manager.recorder = null;
+		manager = null;
+		log.resolver = null;
+	}
+
+	/**
+	 * Tells if the recorder is started.
+	 */
+	public boolean isRecording() {
+		return manager != null;
+	}
+
+	/**
+	 * Gets the number of bytes of the log.
+	 */
+	public int size() {
+		return log.size();
+	}
+
+	/**
+	 * Gets the bytes of the log, to save them. Only the first
+	 * {@link #size()} bytes of the returned array are part of it.
+	 */
+	public byte[] getData() {
+		return log.getData();
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	void onUpdate(float delta) {
+		log.writeByte(UPDATE);
+		log.writeFloat(delta);
+	}
+
+	void onAdd(BaseTween<?> object, boolean isAdded) {
+		if (isAdded) {
+			writeOp(ADD);
+			log.writeTree(object);
+		} else {
+			writeOp(RESTART);
+			log.writeInt(object.index);
+		}
+	}
+
+	void onPush(TweenQueue queue, BaseTween<?> object) {
+		writeOp(PUSH);
+		writeLocation(queue);
+		log.writeTree(object);
+	}
+
+	void onCommand(int op, BaseTween<?> object) {
+		writeOp(op);
+		writeLocation(object);
+	}
+
+	void onPause(boolean isPaused) {
+		writeOp(isPaused ? PAUSE_ALL : RESUME_ALL);
+	}
+
+	void onRestore(TweenSnapshot snapshot) {
+		writeOp(RESTORE);
+		log.writeInt(snapshot.size());
+		log.writeBytes(snapshot.getData(), 0, snapshot.size());
+	}
+
+	/**
+	 * Gets the index of an object in the children of its container. Queues
+	 * number their children from the first one ever pushed, since the played
+	 * ones are removed.
+	 */
+	static int getChildIndex(BaseTween<?> obj) {
+		int index = obj.childIndex;
+		if (obj.container instanceof TweenQueue) index -= ((TweenQueue) obj.container).removedCnt;
+		return index;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void writeOp(int op) {
+		if (manager.position >= 0) {
+			log.writeByte(AT);
+			log.writeInt(manager.position);
+		}
+		log.writeByte(op);
+	}
+
+	// An object is located by the index of its root in the manager, then by
+	// its index in each container down from the root
+	private void writeLocation(BaseTween<?> object) {
+		BaseTween<?> root = object;
+		int depth = 0;
+
+		while (root.container != null) {
+			root = root.container;
+			depth += 1;
+		}
+
+		log.writeInt(root.index);
+		log.writeShort(depth);
+		writeChildIndexes(object);
+	}
+
+	private void writeChildIndexes(BaseTween<?> obj) {
+		if (obj.container == null) return;
+		writeChildIndexes(obj.container);
+		log.writeInt(getChildIndex(obj));
+	}
+}
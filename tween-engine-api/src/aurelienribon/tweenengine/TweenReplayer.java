@@ -0,0 +1,177 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Replays a log written by a {@link TweenRecorder} on a TweenManager,
+ * without the game around it: the manager goes through the same states as
+ * the recorded one, update after update. Useful to reproduce a bug from a
+ * log sent by a tester, in a debugger or in a headless test.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenReplayer replayer = new TweenReplayer(bytes, 0, bytes.length);
+ * replayer.start(manager, resolver);
+ * while (replayer.step()) {
+ *     // inspect the manager and the targets
+ * }
+ * }</pre>
+ *
+ * The resolver gives back the targets, callbacks and user data of the IDs
+ * written in the log. The targets must have the values they had when the
+ * recording started. Callbacks are called again by the replay: give back
+ * callbacks that don't add or kill anything, or none, since the objects
+ * they added or killed in the recorded session are already in the log.
+ *
+ * @see TweenRecorder
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenReplayer {
+	private final TweenSnapshot log = new TweenSnapshot();
+	private final TweenSnapshot snapshot = new TweenSnapshot();
+	private TweenManager manager;
+	private TweenEngine engine;
+	private int updatesCnt;
+	private int nextPosition; // position of the next command of the update, or -1
+
+	/**
+	 * Creates a replayer of the log of a recorder.
+	 */
+	public TweenReplayer(TweenRecorder recorder) {
+		this(recorder.getData(), 0, recorder.size());
+	}
+
+	/**
+	 * Creates a replayer of a saved log. The bytes are copied.
+	 */
+	public TweenReplayer(byte[] data, int offset, int length) {
+		log.setData(data, offset, length);
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Starts the replay on a manager, with the tweens and staggers taken from
+	 * the default engine. Every object of the manager is freed by the first
+	 * step, which restores the state of the recorded manager.
+	 */
+	public void start(TweenManager manager, TweenSnapshot.Resolver resolver) {
+		start(manager, TweenEngine.getDefault(), resolver);
+	}
+
+	/**
+	 * Starts the replay on a manager, with the tweens and staggers taken from
+	 * the given engine. Every object of the manager is freed by the first
+	 * step, which restores the state of the recorded manager.
+	 */
+	public void start(TweenManager manager, TweenEngine engine, TweenSnapshot.Resolver resolver) {
+		log.rewind();
+		if (log.size() < 4 || log.readInt() != TweenRecorder.MAGIC) throw new RuntimeException("The data is not a tween log, or comes from an incompatible version");
+
+		if (this.manager != null) this.manager.replayer = null;
+		log.resolver = resolver;
+		log.engine = engine;
+		this.manager = manager;
+		this.engine = engine;
+		updatesCnt = 0;
+		manager.replayer = this;
+	}
+
+	/**
+	 * Replays the log up to the next update of the manager, included.
+	 *
+	 * @return False once the end of the log is reached.
+	 */
+	public boolean step() {
+		if (manager == null) throw new RuntimeException("The replayer is not started");
+
+		while (!log.isAtEnd()) {
+			int op = log.readByte();
+
+			if (op == TweenRecorder.UPDATE) {
+				float delta = log.readFloat();
+				readNextPosition();
+				manager.update(delta);
+				if (nextPosition >= 0) throw new RuntimeException("The tween log doesn't match the replayed objects");
+				updatesCnt += 1;
+				return true;
+			}
+
+			execute(op);
+		}
+
+		manager.replayer = null;
+		return false;
+	}
+
+	/**
+	 * Replays the whole log.
+	 */
+	public void replay() {
+		while (step());
+	}
+
+	/**
+	 * Gets the number of updates replayed since the start.
+	 */
+	public int getUpdatesCount() {
+		return updatesCnt;
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Called by the manager during an update, before each object it visits,
+	 * to replay the commands given at that point of the recorded update.
+	 */
+	void onVisit(int position) {
+		while (nextPosition == position) {
+			execute(log.readByte());
+			readNextPosition();
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void execute(int op) {
+		switch (op) {
+			case TweenRecorder.ADD: manager.attach(log.readTree()); break;
+			case TweenRecorder.RESTART: manager.add(manager.getObjects().get(log.readInt())); break;
+			case TweenRecorder.PUSH: ((TweenQueue) readObject()).addChild(log.readTree()); break;
+			case TweenRecorder.CLOSE: ((TweenQueue) readObject()).close(); break;
+			case TweenRecorder.KILL: readObject().kill(); break;
+			case TweenRecorder.PAUSE: readObject().pause(); break;
+			case TweenRecorder.RESUME: readObject().resume(); break;
+			case TweenRecorder.PAUSE_ALL: manager.pause(); break;
+			case TweenRecorder.RESUME_ALL: manager.resume(); break;
+
+			case TweenRecorder.RESTORE:
+				log.readBytes(snapshot, log.readInt());
+				snapshot.restore(manager, engine, log.resolver);
+				break;
+
+			case TweenRecorder.AT: throw new RuntimeException("The tween log doesn't match the replayed objects");
+			default: throw new RuntimeException("The tween log is corrupted");
+		}
+	}
+
+	// Commands given during an update are prefixed by their position
+	private void readNextPosition() {
+		nextPosition = -1;
+		if (log.isAtEnd() || log.peekByte() != TweenRecorder.AT) return;
+		log.readByte();
+		nextPosition = log.readInt();
+	}
+
+	private BaseTween<?> readObject() {
+		BaseTween<?> obj = manager.getObjects().get(log.readInt());
+		for (int depth=log.readShort(); depth>0; depth--) {
+			obj = TweenSnapshot.getChildren(obj).get(log.readInt());
+		}
+		return obj;
+	}
+}
@@ -0,0 +1,464 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary copy of the state of a TweenManager: every tween,
+ * timeline, stagger and queue it runs, with their nesting, steps, times,
+ * repetitions, and start, target and waypoint values. Restoring it puts the
+ * manager back in the exact same state, for save games or for the rollback
+ * of a networked game.
+ * <p/>
+ *
+ * Targets, callbacks and user data are not serialized: they are written as
+ * IDs given by a {@link Resolver}, which gives the objects back when the
+ * snapshot is restored. The built-in equations and paths are written as
+ * such, while the other ones also go through the resolver. So do the
+ * classes given to cast(), if any.
+ *
+ * <pre> {@code
+ * TweenSnapshot[] frames = new TweenSnapshot[8];
+ * for (int i=0; i<frames.length; i++) frames[i] = new TweenSnapshot();
+ *
+ * // each frame:
+ * frames[frame % 8].capture(manager, resolver);
+ *
+ * // on rollback:
+ * frames[confirmedFrame % 8].restore(manager, resolver);
+ * }</pre>
+ *
+ * A snapshot keeps its byte array from one capture to the next: once it is
+ * big enough, capturing allocates nothing. Restoring frees every object of
+ * the manager and takes new ones from the pools, so the references and
+ * handles to the objects of the manager are not valid anymore. Completion
+ * listeners, like the ones of {@link TweenFuture}, are not kept. Objects
+ * not started yet are built by the capture.
+ * <p/>
+ *
+ * Don't capture or restore a snapshot while the manager is updated.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenSnapshot {
+	/**
+	 * Gives IDs to the objects referenced by the tweens: targets, callbacks,
+	 * user data, custom equations and paths, and cast classes.
+	 */
+	public interface Resolver {
+		/**
+		 * Gets the ID of an object, never null. IDs can't be negative.
+		 */
+		public int getId(Object object);
+
+		/**
+		 * Gets the object of an ID returned by {@link #getId}.
+		 */
+		public Object getObject(int id);
+	}
+
+	// -------------------------------------------------------------------------
+
+	private static final int MAGIC = 0x54574e31; // "TWN1"
+
+	private static final int TWEEN = 0;
+	private static final int TIMELINE = 1;
+	private static final int STAGGER = 2;
+	private static final int QUEUE = 3;
+
+	private static final int NULL = 0;
+	private static final int RESOLVED = 0xFF;
+
+	private byte[] data;
+	private int size;
+	private int position;
+
+	private final List<BaseTween<?>> stack = new ArrayList<BaseTween<?>>();
+	private int[] remaining = new int[8];
+	Resolver resolver;
+	TweenEngine engine;
+
+	/**
+	 * Creates an empty snapshot.
+	 */
+	public TweenSnapshot() {
+		this(256);
+	}
+
+	/**
+	 * Creates an empty snapshot, with the given capacity in bytes.
+	 */
+	public TweenSnapshot(int capacity) {
+		data = new byte[Math.max(capacity, 16)];
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Captures the state of every object of a manager, replacing the
+	 * previous content of the snapshot.
+	 *
+	 * @return The current snapshot, for chaining instructions.
+	 */
+	public TweenSnapshot capture(TweenManager manager, Resolver resolver) {
+		this.resolver = resolver;
+		size = 0;
+
+		try {
+			List<BaseTween<?>> objects = manager.getObjects();
+			writeInt(MAGIC);
+			writeByte(manager.isPaused ? 1 : 0);
+			writeInt(objects.size());
+
+			for (int i=0, n=objects.size(); i<n; i++) {
+				BaseTween<?> root = objects.get(i);
+				if (!root.isStarted()) root.build();
+				writeTree(root);
+			}
+		} finally {
+			stack.clear();
+			this.resolver = null;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Restores the state of a manager, with the tweens and staggers taken
+	 * from the default engine. Every object of the manager is freed first.
+	 */
+	public void restore(TweenManager manager, Resolver resolver) {
+		restore(manager, TweenEngine.getDefault(), resolver);
+	}
+
+	/**
+	 * Restores the state of a manager, with the tweens and staggers taken
+	 * from the given engine. Every object of the manager is freed first.
+	 */
+	public void restore(TweenManager manager, TweenEngine engine, Resolver resolver) {
+		this.resolver = resolver;
+		this.engine = engine;
+		position = 0;
+
+		try {
+			if (size < 9 || readInt() != MAGIC) throw new RuntimeException("The data is not a tween snapshot, or comes from an incompatible version");
+			manager.clear();
+			manager.isPaused = readByte() != 0;
+
+			for (int i=0, n=readInt(); i<n; i++) {
+				manager.attach(readTree());
+			}
+
+			if (manager.recorder != null) manager.recorder.onRestore(this);
+		} finally {
+			stack.clear();
+			this.resolver = null;
+			this.engine = null;
+		}
+	}
+
+	/**
+	 * Gets the number of bytes of the snapshot.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the bytes of the snapshot, to save them. Only the first
+	 * {@link #size()} bytes of the returned array are part of it. The array
+	 * is reused by the next captures.
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Replaces the content of the snapshot with saved bytes.
+	 *
+	 * @return The current snapshot, for chaining instructions.
+	 */
+	public TweenSnapshot setData(byte[] bytes, int offset, int length) {
+		size = 0;
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, data, 0, length);
+		size = length;
+		return this;
+	}
+
+	/**
+	 * Replaces the content of the snapshot with the one of another snapshot.
+	 *
+	 * @return The current snapshot, for chaining instructions.
+	 */
+	public TweenSnapshot set(TweenSnapshot other) {
+		return setData(other.data, 0, other.size);
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API -- writing
+	// -------------------------------------------------------------------------
+
+	void writeByte(int value) {
+		ensureCapacity(size + 1);
+		data[size++] = (byte) value;
+	}
+
+	void writeShort(int value) {
+		ensureCapacity(size + 2);
+		data[size++] = (byte) (value >>> 8);
+		data[size++] = (byte) value;
+	}
+
+	void writeInt(int value) {
+		ensureCapacity(size + 4);
+		data[size++] = (byte) (value >>> 24);
+		data[size++] = (byte) (value >>> 16);
+		data[size++] = (byte) (value >>> 8);
+		data[size++] = (byte) value;
+	}
+
+	void writeFloat(float value) {
+		writeInt(Float.floatToIntBits(value));
+	}
+
+	void writeString(String value) {
+		if (value == null) {
+			writeInt(-1);
+			return;
+		}
+		writeInt(value.length());
+		for (int i=0, n=value.length(); i<n; i++) writeShort(value.charAt(i));
+	}
+
+	void writeObject(Object object) {
+		if (object == null) {
+			writeInt(-1);
+			return;
+		}
+		int id = resolver.getId(object);
+		if (id < 0) throw new RuntimeException("The resolver has no ID for the object " + object);
+		writeInt(id);
+	}
+
+	void writeEquation(TweenEquation equation) {
+		if (equation == null) {
+			writeByte(NULL);
+			return;
+		}
+		TweenEquation[] easings = TweenUtils.getEasings();
+		for (int i=0; i<easings.length; i++) {
+			if (easings[i] == equation) {
+				writeByte(i+1);
+				return;
+			}
+		}
+		writeByte(RESOLVED);
+		writeObject(equation);
+	}
+
+	void writePath(TweenPath path) {
+		if (path == null) {
+			writeByte(NULL);
+		} else if (path == TweenPaths.linear) {
+			writeByte(1);
+		} else if (path == TweenPaths.catmullRom) {
+			writeByte(2);
+		} else {
+			writeByte(RESOLVED);
+			writeObject(path);
+		}
+	}
+
+	void writeBytes(byte[] bytes, int offset, int length) {
+		ensureCapacity(size + length);
+		System.arraycopy(bytes, offset, data, size, length);
+		size += length;
+	}
+
+	/**
+	 * Writes an object and the ones it contains.
+	 */
+	void writeTree(BaseTween<?> root) {
+		int base = stack.size();
+		stack.add(root);
+
+		// Nested objects are written depth-first, each container followed
+		// by its number of children then by the children
+		while (stack.size() > base) {
+			BaseTween<?> obj = stack.remove(stack.size()-1);
+			List<BaseTween<?>> children = getChildren(obj);
+			writeByte(getKind(obj));
+			obj.writeState(this);
+
+			if (children != null) {
+				writeInt(children.size());
+				for (int i=children.size()-1; i>=0; i--) stack.add(children.get(i));
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API -- reading
+	// -------------------------------------------------------------------------
+
+	int readByte() {
+		checkRemaining(1);
+		return data[position++] & 0xFF;
+	}
+
+	int peekByte() {
+		checkRemaining(1);
+		return data[position] & 0xFF;
+	}
+
+	int readShort() {
+		checkRemaining(2);
+		int value = (data[position] & 0xFF) << 8 | (data[position+1] & 0xFF);
+		position += 2;
+		return value;
+	}
+
+	int readInt() {
+		checkRemaining(4);
+		int value = (data[position] & 0xFF) << 24 | (data[position+1] & 0xFF) << 16
+			| (data[position+2] & 0xFF) << 8 | (data[position+3] & 0xFF);
+		position += 4;
+		return value;
+	}
+
+	float readFloat() {
+		return Float.intBitsToFloat(readInt());
+	}
+
+	String readString() {
+		int length = readInt();
+		if (length < 0) return null;
+		char[] chars = new char[length];
+		for (int i=0; i<length; i++) chars[i] = (char) readShort();
+		return new String(chars);
+	}
+
+	Object readObject() {
+		int id = readInt();
+		return id < 0 ? null : resolver.getObject(id);
+	}
+
+	TweenEquation readEquation() {
+		int code = readByte();
+		if (code == NULL) return null;
+		if (code == RESOLVED) return (TweenEquation) readObject();
+		return TweenUtils.getEasings()[code-1];
+	}
+
+	TweenPath readPath() {
+		switch (readByte()) {
+			case NULL: return null;
+			case 1: return TweenPaths.linear;
+			case 2: return TweenPaths.catmullRom;
+			default: return (TweenPath) readObject();
+		}
+	}
+
+	void readBytes(TweenSnapshot snapshot, int length) {
+		checkRemaining(length);
+		snapshot.setData(data, position, length);
+		position += length;
+	}
+
+	boolean isAtEnd() {
+		return position >= size;
+	}
+
+	void rewind() {
+		position = 0;
+	}
+
+	void clear() {
+		size = position = 0;
+	}
+
+	/**
+	 * Reads an object written by {@link #writeTree}, and the ones it
+	 * contains, from the pools.
+	 */
+	BaseTween<?> readTree() {
+		BaseTween<?> root = null;
+
+		// The stack holds the containers still waiting for children, and
+		// "remaining" the number of children each one waits for
+		do {
+			BaseTween<?> obj = readOne();
+			int childrenCnt = getChildren(obj) != null ? readInt() : 0;
+
+			if (stack.isEmpty()) {
+				root = obj;
+			} else {
+				int top = stack.size()-1;
+				BaseTween<?> container = stack.get(top);
+				if (container instanceof Timeline) ((Timeline) container).addChild(obj);
+				else ((TweenQueue) container).addChild(obj);
+				remaining[top] -= 1;
+			}
+
+			if (childrenCnt > 0) {
+				if (stack.size() == remaining.length) {
+					int[] newRemaining = new int[remaining.length*2];
+					System.arraycopy(remaining, 0, newRemaining, 0, remaining.length);
+					remaining = newRemaining;
+				}
+				remaining[stack.size()] = childrenCnt;
+				stack.add(obj);
+			}
+
+			while (!stack.isEmpty() && remaining[stack.size()-1] == 0) stack.remove(stack.size()-1);
+		} while (!stack.isEmpty());
+
+		return root;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private BaseTween<?> readOne() {
+		BaseTween<?> obj;
+		switch (readByte()) {
+			case TWEEN: obj = engine.tweenPool.get(); break;
+			case TIMELINE: obj = Timeline.pool.get(); break;
+			case STAGGER: obj = Stagger.pool.get(); break;
+			case QUEUE: obj = TweenQueue.create(); break;
+			default: throw new RuntimeException("The tween snapshot is corrupted");
+		}
+		obj.readState(this);
+		return obj;
+	}
+
+	private static int getKind(BaseTween<?> obj) {
+		if (obj instanceof Tween) return TWEEN;
+		if (obj instanceof Timeline) return TIMELINE;
+		if (obj instanceof Stagger) return STAGGER;
+		if (obj instanceof TweenQueue) return QUEUE;
+		throw new RuntimeException("Objects of class " + obj.getClass().getName() + " can't be saved in a snapshot");
+	}
+
+	static List<BaseTween<?>> getChildren(BaseTween<?> obj) {
+		if (obj instanceof Timeline) return ((Timeline) obj).getChildren();
+		if (obj instanceof TweenQueue) return ((TweenQueue) obj).getChildren();
+		return null;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > data.length) {
+			byte[] newData = new byte[Math.max(capacity, data.length*2)];
+			System.arraycopy(data, 0, newData, 0, size);
+			data = newData;
+		}
+	}
+
+	private void checkRemaining(int count) {
+		if (position + count > size) throw new RuntimeException("The tween snapshot is truncated");
+	}
+}
@@ -0,0 +1,510 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tween or timeline described as data, compiled once and instantiated as
+ * many times as needed. The description is parsed and validated when the
+ * template is created: instantiating it only takes objects from the pools
+ * and sets them up, like the code of the same animation would.
+ * <p/>
+ *
+ * Templates are written in a text format, made for authoring, or loaded from
+ * a compact binary form, made for shipping (see {@link #toBinary()}). The
+ * text format has one instruction per line, and everything after a '#' is a
+ * comment:
+ *
+ * <pre>
+ * sequence repeat=2,0.5
+ *     to hero 1 0.5 target=10,20 ease=Quad.OUT
+ *     parallel
+ *         to hero x,y 1.0 target=0,0 waypoint=5,5 waypoint=2,8 path=linear
+ *         from logo 3 1.0 relative=0,-20 delay=0.2 callback=onLogo triggers=BEGIN,COMPLETE
+ *     end
+ *     pause 0.5
+ *     call onDone
+ * end
+ * </pre>
+ *
+ * <b>sequence</b>, <b>parallel</b>: begins a timeline, ended by <b>end</b><br/>
+ * <b>to</b>, <b>from</b> target type duration: a tween, where type is a
+ * tween type, or names of properties like "x,y"<br/>
+ * <b>set</b> target type: a tween of no duration<br/>
+ * <b>call</b> callback: a callback tween<br/>
+ * <b>pause</b> duration: a pause in a timeline
+ * <p/>
+ *
+ * Instructions take the options <b>delay</b>=time,
+ * <b>repeat</b>=count[,delay], <b>yoyo</b>=count[,delay],
+ * <b>callback</b>=name, <b>triggers</b>=event names, and <b>data</b>=name.
+ * Tweens also take <b>ease</b>=equation name, <b>path</b>=linear or
+ * catmullRom, <b>target</b>=values, <b>relative</b>=values, and any number of
+ * <b>waypoint</b>=values.
+ * <p/>
+ *
+ * Targets, callbacks and user data are names, bound to objects at each
+ * instantiation: either with an array, in the order given by
+ * {@link #getBindingIndex(String)}, which is the fastest, or with a map.
+ * A template is immutable and can be shared, even between threads as long
+ * as the pools are made thread-safe, see ThreadSafePools.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenTemplate {
+	private static final int MAGIC = 0x54575431; // "TWT1"
+
+	private static final int SEQUENCE = 0;
+	private static final int PARALLEL = 1;
+	private static final int END = 2;
+	private static final int TO = 3;
+	private static final int FROM = 4;
+	private static final int SET = 5;
+	private static final int CALL = 6;
+	private static final int PAUSE = 7;
+
+	private static final int F_TARGET = 0x1;
+	private static final int F_TYPE = 0x2;
+	private static final int F_PROPERTIES = 0x4;
+	private static final int F_DURATION = 0x8;
+	private static final int F_DELAY = 0x10;
+	private static final int F_REPEAT = 0x20;
+	private static final int F_YOYO = 0x40;
+	private static final int F_EQUATION = 0x80;
+	private static final int F_PATH = 0x100;
+	private static final int F_RELATIVE = 0x200;
+	private static final int F_VALUES = 0x400;
+	private static final int F_WAYPOINTS = 0x800;
+	private static final int F_CALLBACK = 0x1000;
+	private static final int F_TRIGGERS = 0x2000;
+	private static final int F_USER_DATA = 0x4000;
+
+	private static final String[] OPS = {"sequence", "parallel", "end", "to", "from", "set", "call", "pause"};
+	private static final String[] TRIGGERS = {"BEGIN", "START", "END", "COMPLETE",
+		"BACK_BEGIN", "BACK_START", "BACK_END", "BACK_COMPLETE"};
+
+	/**
+	 * Parses a template from its text form.
+	 *
+	 * @throws RuntimeException If the text is not valid, with the number of
+	 * the faulty line.
+	 */
+	public static TweenTemplate parse(String text) {
+		TweenTemplate template = new TweenTemplate();
+		String[] lines = text.split("\r?\n");
+		int depth = 0;
+		int rootsCnt = 0;
+
+		for (int i=0; i<lines.length; i++) {
+			String line = lines[i];
+			int comment = line.indexOf('#');
+			if (comment >= 0) line = line.substring(0, comment);
+			line = line.trim();
+			if (line.length() == 0) continue;
+
+			try {
+				Node node = template.parseNode(line.split("\\s+"));
+				if (node.op == END && depth == 0) throw new RuntimeException("'end' without a timeline to end");
+				if (node.op != END && depth == 0) rootsCnt += 1;
+				if (node.op == PAUSE && depth == 0) throw new RuntimeException("A pause must be in a timeline");
+				if (rootsCnt > 1) throw new RuntimeException("A template has a single tween or timeline at its root");
+				if (node.op == SEQUENCE || node.op == PARALLEL) depth += 1;
+				if (node.op == END) depth -= 1;
+				template.nodes.add(node);
+			} catch (RuntimeException ex) {
+				throw new RuntimeException("Line " + (i+1) + ": " + ex.getMessage(), ex);
+			}
+		}
+
+		if (rootsCnt == 0) throw new RuntimeException("The template is empty");
+		if (depth > 0) throw new RuntimeException("A timeline is missing its 'end'");
+		return template;
+	}
+
+	/**
+	 * Loads a template from its binary form.
+	 *
+	 * @see #toBinary()
+	 */
+	public static TweenTemplate fromBinary(byte[] data, int offset, int length) {
+		TweenSnapshot in = new TweenSnapshot(0).setData(data, offset, length);
+		if (length < 4 || in.readInt() != MAGIC) throw new RuntimeException("The data is not a tween template, or comes from an incompatible version");
+
+		TweenTemplate template = new TweenTemplate();
+		for (int i=0, n=in.readInt(); i<n; i++) template.bindings.add(in.readString());
+
+		for (int i=0, n=in.readInt(); i<n; i++) {
+			Node node = new Node();
+			node.op = in.readByte();
+			int fields = in.readShort();
+			if ((fields & F_TARGET) != 0) node.target = in.readShort();
+			if ((fields & F_TYPE) != 0) node.type = in.readInt();
+			if ((fields & F_PROPERTIES) != 0) node.properties = in.readString();
+			if ((fields & F_DURATION) != 0) node.duration = in.readFloat();
+			if ((fields & F_DELAY) != 0) node.delay = in.readFloat();
+			if ((fields & F_REPEAT) != 0) node.repeatCnt = in.readInt();
+			if ((fields & F_REPEAT) != 0) node.repeatDelay = in.readFloat();
+			node.isYoyo = (fields & F_YOYO) != 0;
+			if ((fields & F_EQUATION) != 0) node.equation = in.readEquation();
+			if ((fields & F_PATH) != 0) node.path = in.readPath();
+			node.isRelative = (fields & F_RELATIVE) != 0;
+			if ((fields & F_VALUES) != 0) node.values = readValues(in);
+			if ((fields & F_WAYPOINTS) != 0) node.waypoints = new float[in.readByte()][];
+			for (int ii=0; ii<node.waypoints.length; ii++) node.waypoints[ii] = readValues(in);
+			if ((fields & F_CALLBACK) != 0) node.callback = in.readShort();
+			if ((fields & F_TRIGGERS) != 0) node.triggers = in.readShort();
+			if ((fields & F_USER_DATA) != 0) node.userData = in.readShort();
+			template.nodes.add(node);
+		}
+
+		return template;
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private static final class Node {
+		int op;
+		int target = -1;
+		int type = -1;
+		String properties;
+		float duration;
+		float delay;
+		int repeatCnt;
+		float repeatDelay;
+		boolean isYoyo;
+		TweenEquation equation;
+		TweenPath path;
+		boolean isRelative;
+		float[] values;
+		float[][] waypoints = new float[0][];
+		int callback = -1;
+		int triggers = -1;
+		int userData = -1;
+	}
+
+	private final List<String> bindings = new ArrayList<String>();
+	private final List<Node> nodes = new ArrayList<Node>();
+
+	private TweenTemplate() {
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the number of names bound at instantiation.
+	 */
+	public int getBindingsCount() {
+		return bindings.size();
+	}
+
+	/**
+	 * Gets the index of a name in the array given to
+	 * {@link #instantiate(Object[])}, or -1 if the template doesn't use it.
+	 */
+	public int getBindingIndex(String name) {
+		return bindings.indexOf(name);
+	}
+
+	/**
+	 * Gets the name of the given index in the array given to
+	 * {@link #instantiate(Object[])}.
+	 */
+	public String getBindingName(int index) {
+		return bindings.get(index);
+	}
+
+	/**
+	 * Creates a new tween or timeline from the template, not started.
+	 *
+	 * @param objects The targets, callbacks and user data, in the order of
+	 * {@link #getBindingIndex(String)}.
+	 */
+	public BaseTween<?> instantiate(Object[] objects) {
+		if (objects.length < bindings.size()) throw new RuntimeException("The template needs " + bindings.size() + " bound objects");
+		BaseTween<?> root = null;
+		List<Timeline> stack = new ArrayList<Timeline>(4);
+
+		for (int i=0, n=nodes.size(); i<n; i++) {
+			Node node = nodes.get(i);
+			BaseTween<?> obj;
+
+			switch (node.op) {
+				case SEQUENCE: obj = Timeline.createSequence(); break;
+				case PARALLEL: obj = Timeline.createParallel(); break;
+				case CALL: obj = Tween.call((TweenCallback) objects[node.callback]); break;
+				case PAUSE: stack.get(stack.size()-1).pushPause(node.duration); continue;
+				case END: obj = stack.remove(stack.size()-1); break;
+				default: obj = createTween(node, objects); break;
+			}
+
+			if (node.op != END) setup(obj, node, objects);
+			if (node.op == SEQUENCE || node.op == PARALLEL) {
+				stack.add((Timeline) obj);
+				continue;
+			}
+
+			if (stack.isEmpty()) root = obj;
+			else if (obj instanceof Timeline) stack.get(stack.size()-1).push((Timeline) obj);
+			else stack.get(stack.size()-1).push((Tween) obj);
+		}
+
+		return root;
+	}
+
+	/**
+	 * Creates a new tween or timeline from the template, not started.
+	 *
+	 * @param objects The targets, callbacks and user data, by name.
+	 */
+	public BaseTween<?> instantiate(Map<String, ?> objects) {
+		Object[] array = new Object[bindings.size()];
+		for (int i=0; i<array.length; i++) {
+			if (!objects.containsKey(bindings.get(i))) throw new RuntimeException("Nothing is bound to '" + bindings.get(i) + "'");
+			array[i] = objects.get(bindings.get(i));
+		}
+		return instantiate(array);
+	}
+
+	/**
+	 * Gets the binary form of the template, which loads faster than the text
+	 * one, with {@link #fromBinary}.
+	 */
+	public byte[] toBinary() {
+		TweenSnapshot out = new TweenSnapshot();
+		out.writeInt(MAGIC);
+		out.writeInt(bindings.size());
+		for (int i=0; i<bindings.size(); i++) out.writeString(bindings.get(i));
+		out.writeInt(nodes.size());
+
+		// Each node only writes its fields which are not left to their
+		// default, listed by a bit field
+		for (int i=0; i<nodes.size(); i++) {
+			Node node = nodes.get(i);
+			int fields = (node.target >= 0 ? F_TARGET : 0) | (node.type != -1 ? F_TYPE : 0)
+				| (node.properties != null ? F_PROPERTIES : 0) | (node.duration != 0 ? F_DURATION : 0)
+				| (node.delay != 0 ? F_DELAY : 0) | (node.repeatCnt != 0 ? F_REPEAT : 0)
+				| (node.isYoyo ? F_YOYO : 0) | (node.equation != null ? F_EQUATION : 0)
+				| (node.path != null ? F_PATH : 0) | (node.isRelative ? F_RELATIVE : 0)
+				| (node.values != null ? F_VALUES : 0) | (node.waypoints.length > 0 ? F_WAYPOINTS : 0)
+				| (node.callback >= 0 ? F_CALLBACK : 0) | (node.triggers >= 0 ? F_TRIGGERS : 0)
+				| (node.userData >= 0 ? F_USER_DATA : 0);
+
+			out.writeByte(node.op);
+			out.writeShort(fields);
+			if (node.target >= 0) out.writeShort(node.target);
+			if (node.type != -1) out.writeInt(node.type);
+			if (node.properties != null) out.writeString(node.properties);
+			if (node.duration != 0) out.writeFloat(node.duration);
+			if (node.delay != 0) out.writeFloat(node.delay);
+			if (node.repeatCnt != 0) out.writeInt(node.repeatCnt);
+			if (node.repeatCnt != 0) out.writeFloat(node.repeatDelay);
+			if (node.equation != null) out.writeEquation(node.equation);
+			if (node.path != null) out.writePath(node.path);
+			if (node.values != null) writeValues(out, node.values);
+			if (node.waypoints.length > 0) out.writeByte(node.waypoints.length);
+			for (int ii=0; ii<node.waypoints.length; ii++) writeValues(out, node.waypoints[ii]);
+			if (node.callback >= 0) out.writeShort(node.callback);
+			if (node.triggers >= 0) out.writeShort(node.triggers);
+			if (node.userData >= 0) out.writeShort(node.userData);
+		}
+
+		byte[] data = new byte[out.size()];
+		System.arraycopy(out.getData(), 0, data, 0, data.length);
+		return data;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers -- instantiation
+	// -------------------------------------------------------------------------
+
+	private static Tween createTween(Node node, Object[] objects) {
+		Object target = objects[node.target];
+		Tween tween;
+
+		if (node.properties != null) {
+			switch (node.op) {
+				case TO: tween = Tween.to(target, node.properties, node.duration); break;
+				case FROM: tween = Tween.from(target, node.properties, node.duration); break;
+				default: tween = Tween.set(target, node.properties); break;
+			}
+		} else {
+			switch (node.op) {
+				case TO: tween = Tween.to(target, node.type, node.duration); break;
+				case FROM: tween = Tween.from(target, node.type, node.duration); break;
+				default: tween = Tween.set(target, node.type); break;
+			}
+		}
+
+		if (node.equation != null) tween.ease(node.equation);
+		if (node.path != null) tween.path(node.path);
+		if (node.values != null && node.isRelative) tween.targetRelative(node.values);
+		else if (node.values != null) tween.target(node.values);
+		for (int i=0; i<node.waypoints.length; i++) tween.waypoint(node.waypoints[i]);
+		return tween;
+	}
+
+	private static void setup(BaseTween<?> obj, Node node, Object[] objects) {
+		if (node.delay != 0) obj.delay(node.delay);
+		if (node.repeatCnt != 0 && node.isYoyo) obj.repeatYoyo(node.repeatCnt, node.repeatDelay);
+		else if (node.repeatCnt != 0) obj.repeat(node.repeatCnt, node.repeatDelay);
+		if (node.callback >= 0 && node.op != CALL) obj.setCallback((TweenCallback) objects[node.callback]);
+		if (node.triggers >= 0) obj.setCallbackTriggers(node.triggers);
+		if (node.userData >= 0) obj.setUserData(objects[node.userData]);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers -- parsing
+	// -------------------------------------------------------------------------
+
+	private Node parseNode(String[] tokens) {
+		Node node = new Node();
+		node.op = indexOf(OPS, tokens[0]);
+		if (node.op < 0) throw new RuntimeException("Unknown instruction '" + tokens[0] + "'");
+
+		int argsCnt;
+		switch (node.op) {
+			case TO: case FROM: argsCnt = 3; break;
+			case SET: argsCnt = 2; break;
+			case CALL: case PAUSE: argsCnt = 1; break;
+			default: argsCnt = 0; break;
+		}
+
+		if (tokens.length <= argsCnt || tokens[argsCnt].indexOf('=') >= 0) {
+			throw new RuntimeException("'" + tokens[0] + "' needs " + argsCnt + " arguments");
+		}
+
+		switch (node.op) {
+			case TO: case FROM: case SET:
+				node.target = getBinding(tokens[1]);
+				if (isInteger(tokens[2])) node.type = Integer.parseInt(tokens[2]);
+				else node.properties = tokens[2];
+				if (node.op != SET) node.duration = parseDuration(tokens[3]);
+				break;
+			case CALL: node.callback = getBinding(tokens[1]); break;
+			case PAUSE: node.duration = parseDuration(tokens[1]); break;
+		}
+
+		boolean isTween = node.op == TO || node.op == FROM || node.op == SET;
+		List<float[]> waypoints = new ArrayList<float[]>();
+
+		for (int i=argsCnt+1; i<tokens.length; i++) {
+			int eq = tokens[i].indexOf('=');
+			if (eq <= 0) throw new RuntimeException("Unexpected '" + tokens[i] + "', options are written as name=value");
+			String key = tokens[i].substring(0, eq);
+			String value = tokens[i].substring(eq+1);
+
+			if (node.op == END || node.op == PAUSE) {
+				throw new RuntimeException("'" + tokens[0] + "' takes no options");
+
+			} else if (key.equals("delay")) {
+				node.delay = parseDuration(value);
+
+			} else if (key.equals("repeat") || key.equals("yoyo")) {
+				float[] repeat = parseValues(value);
+				if (repeat.length > 2 || repeat[0] != (int) repeat[0]) throw new RuntimeException("Invalid repetitions '" + value + "'");
+				node.repeatCnt = (int) repeat[0];
+				node.repeatDelay = repeat.length > 1 ? repeat[1] : 0;
+				node.isYoyo = key.equals("yoyo");
+
+			} else if (key.equals("callback")) {
+				node.callback = getBinding(value);
+
+			} else if (key.equals("triggers")) {
+				node.triggers = 0;
+				String[] names = value.split(",");
+				for (int ii=0; ii<names.length; ii++) {
+					int trigger = indexOf(TRIGGERS, names[ii]);
+					if (trigger < 0) throw new RuntimeException("Unknown trigger '" + names[ii] + "'");
+					node.triggers |= 1 << trigger;
+				}
+
+			} else if (key.equals("data")) {
+				node.userData = getBinding(value);
+
+			} else if (isTween && key.equals("ease")) {
+				node.equation = TweenUtils.parseEasing(value);
+				if (node.equation == null) throw new RuntimeException("Unknown easing '" + value + "'");
+
+			} else if (isTween && key.equals("path")) {
+				if (value.equals("linear")) node.path = TweenPaths.linear;
+				else if (value.equals("catmullRom")) node.path = TweenPaths.catmullRom;
+				else throw new RuntimeException("Unknown path '" + value + "'");
+
+			} else if (isTween && (key.equals("target") || key.equals("relative"))) {
+				node.values = parseValues(value);
+				node.isRelative = key.equals("relative");
+
+			} else if (isTween && key.equals("waypoint")) {
+				waypoints.add(parseValues(value));
+
+			} else {
+				throw new RuntimeException("Unknown option '" + key + "' for '" + tokens[0] + "'");
+			}
+		}
+
+		node.waypoints = waypoints.toArray(node.waypoints);
+		return node;
+	}
+
+	private int getBinding(String name) {
+		int index = bindings.indexOf(name);
+		if (index >= 0) return index;
+		bindings.add(name);
+		return bindings.size()-1;
+	}
+
+	private static int indexOf(String[] names, String name) {
+		for (int i=0; i<names.length; i++) if (names[i].equals(name)) return i;
+		return -1;
+	}
+
+	private static boolean isInteger(String str) {
+		for (int i=0; i<str.length(); i++) {
+			char c = str.charAt(i);
+			if ((c < '0' || c > '9') && !(i == 0 && c == '-' && str.length() > 1)) return false;
+		}
+		return true;
+	}
+
+	private static float parseDuration(String str) {
+		float value = parseFloat(str);
+		if (value < 0) throw new RuntimeException("Duration can't be negative");
+		return value;
+	}
+
+	private static float[] parseValues(String str) {
+		String[] parts = str.split(",");
+		float[] values = new float[parts.length];
+		for (int i=0; i<parts.length; i++) values[i] = parseFloat(parts[i]);
+		return values;
+	}
+
+	private static float parseFloat(String str) {
+		try {
+			return Float.parseFloat(str);
+		} catch (NumberFormatException ex) {
+			throw new RuntimeException("Invalid number '" + str + "'");
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers -- binary form
+	// -------------------------------------------------------------------------
+
+	private static void writeValues(TweenSnapshot out, float[] values) {
+		out.writeByte(values.length);
+		for (int i=0; i<values.length; i++) out.writeFloat(values[i]);
+	}
+
+	private static float[] readValues(TweenSnapshot in) {
+		int length = in.readByte();
+		float[] values = new float[length];
+		for (int i=0; i<length; i++) values[i] = in.readFloat();
+		return values;
+	}
+}
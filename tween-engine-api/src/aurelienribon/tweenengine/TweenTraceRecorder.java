@@ -0,0 +1,253 @@
+package aurelienribon.tweenengine;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records the life-cycle of every tween and timeline, to look at it in a
+ * trace viewer: the BEGIN, START, END and COMPLETE events (and their
+ * backward counterparts) and the kills, with their time, the identity of the
+ * target and the nesting of the object. Useful to see what a complex
+ * timeline really does, and to find the tweens running for nothing, for
+ * instance behind others.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenTraceRecorder recorder = new TweenTraceRecorder(100000);
+ * TweenTracer.install(recorder);
+ * // ... play the animations, then:
+ * recorder.writeChromeTrace(new FileWriter("menu.json"));
+ * }</pre>
+ *
+ * The export is a Chrome trace (JSON) to open in chrome://tracing or in
+ * Perfetto (ui.perfetto.dev). Each top-level tween or timeline is a process,
+ * and each object it contains is a thread, sorted by nesting order, on
+ * which each iteration is a slice.
+ * <p/>
+ *
+ * Events are kept in a ring buffer allocated once: recording allocates
+ * nothing, and once the buffer is full, the oldest events are overwritten.
+ * The recorder is not thread-safe: use it with managers updated by a single
+ * thread.
+ *
+ * @see TweenTracer
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenTraceRecorder extends TweenTracer {
+	private static final int KILL = 0x10000;
+
+	private final long[] times;
+	private final int[] types;
+	private final int[] ids;
+	private final int[] parentIds;
+	private final int[] rootIds;
+	private final int[] tweenTypes;
+	private final int[] targetHashes;
+	private final Class<?>[] sourceClasses;
+	private final Class<?>[] targetClasses;
+
+	private int head; // index of the next event to write
+	private int size;
+	private int nextId = 1;
+	private long originTime = Clock.nanoTime();
+
+	/**
+	 * Creates a recorder keeping the given number of events at most.
+	 */
+	public TweenTraceRecorder(int capacity) {
+		if (capacity <= 0) throw new RuntimeException("The capacity must be positive");
+		times = new long[capacity];
+		types = new int[capacity];
+		ids = new int[capacity];
+		parentIds = new int[capacity];
+		rootIds = new int[capacity];
+		tweenTypes = new int[capacity];
+		targetHashes = new int[capacity];
+		sourceClasses = new Class<?>[capacity];
+		targetClasses = new Class<?>[capacity];
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the number of recorded events.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of events kept by the recorder.
+	 */
+	public int getCapacity() {
+		return times.length;
+	}
+
+	/**
+	 * Removes every recorded event.
+	 */
+	public void clear() {
+		for (int i=0; i<times.length; i++) sourceClasses[i] = targetClasses[i] = null;
+		head = size = 0;
+		originTime = Clock.nanoTime();
+	}
+
+	/**
+	 * Writes the recorded events as a Chrome trace, in JSON.
+	 */
+	public void writeChromeTrace(Appendable out) throws IOException {
+		Set<Integer> named = new HashSet<Integer>();
+		Set<Integer> open = new HashSet<Integer>();
+		boolean first = true;
+
+		out.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+		for (int n=0; n<size; n++) {
+			int i = (head - size + n + times.length) % times.length;
+			Integer id = ids[i];
+			String label = getLabel(i);
+
+			if (named.add(id)) {
+				if (ids[i] == rootIds[i]) {
+					first = writeSeparator(out, first);
+					writeHead(out, "M", "process_name", i);
+					out.append(",\"args\":{\"name\":\"").append(label).append("\"}}");
+				}
+
+				first = writeSeparator(out, first);
+				writeHead(out, "M", "thread_name", i);
+				out.append(",\"args\":{\"name\":\"").append(label).append("\"}}");
+				first = writeSeparator(out, first);
+				writeHead(out, "M", "thread_sort_index", i);
+				out.append(",\"args\":{\"sort_index\":").append(String.valueOf(ids[i])).append("}}");
+			}
+
+			switch (types[i]) {
+				case TweenCallback.START:
+				case TweenCallback.BACK_START:
+					if (open.add(id)) {
+						first = writeSeparator(out, first);
+						writeHead(out, "B", types[i] == TweenCallback.START ? label : label + " (backward)", i);
+						out.append(",\"ts\":").append(getTimestamp(i));
+						out.append(",\"args\":{\"parent\":").append(String.valueOf(parentIds[i])).append("}}");
+					}
+					break;
+
+				case TweenCallback.END:
+				case TweenCallback.BACK_END:
+				case KILL:
+					if (open.remove(id)) {
+						first = writeSeparator(out, first);
+						writeHead(out, "E", label, i);
+						out.append(",\"ts\":").append(getTimestamp(i)).append("}");
+					}
+					// a kill also gets an instant event
+					if (types[i] == KILL) first = writeInstant(out, first, i);
+					break;
+
+				default:
+					first = writeInstant(out, first, i);
+					break;
+			}
+		}
+
+		out.append("]}");
+	}
+
+	// -------------------------------------------------------------------------
+	// Tracer impl.
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void onEvent(BaseTween<?> source, int type) {
+		if (type != TweenCallback.SYNC_COMPLETE) record(source, type);
+	}
+
+	@Override
+	public void onKill(BaseTween<?> source) {
+		record(source, KILL);
+	}
+
+	private void record(BaseTween<?> source, int type) {
+		int i = head;
+		head = (head + 1) % times.length;
+		size = Math.min(size + 1, times.length);
+
+		BaseTween<?> root = source;
+		while (root.container != null) root = root.container;
+
+		times[i] = Clock.nanoTime();
+		types[i] = type;
+		rootIds[i] = getTraceId(root);
+		parentIds[i] = source.container != null ? getTraceId(source.container) : 0;
+		ids[i] = getTraceId(source);
+		sourceClasses[i] = source.getClass();
+
+		Object target = source instanceof Tween ? ((Tween) source).getTarget() : null;
+		tweenTypes[i] = source instanceof Tween ? ((Tween) source).getType() : 0;
+		targetClasses[i] = target != null ? target.getClass() : null;
+		targetHashes[i] = target != null ? System.identityHashCode(target) : 0;
+	}
+
+	private int getTraceId(BaseTween<?> obj) {
+		if (obj.traceId == 0) obj.traceId = nextId++;
+		return obj.traceId;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void writeHead(Appendable out, String phase, String name, int i) throws IOException {
+		out.append("{\"ph\":\"").append(phase).append("\",\"name\":\"").append(name).append("\"");
+		out.append(",\"pid\":").append(String.valueOf(rootIds[i]));
+		out.append(",\"tid\":").append(String.valueOf(ids[i]));
+	}
+
+	private boolean writeInstant(Appendable out, boolean first, int i) throws IOException {
+		first = writeSeparator(out, first);
+		writeHead(out, "i", getTypeName(types[i]), i);
+		out.append(",\"s\":\"t\",\"ts\":").append(getTimestamp(i)).append("}");
+		return first;
+	}
+
+	private boolean writeSeparator(Appendable out, boolean first) throws IOException {
+		out.append(first ? "\n" : ",\n");
+		return false;
+	}
+
+	private String getTimestamp(int i) {
+		return String.valueOf((times[i] - originTime) / 1000.0);
+	}
+
+	private String getLabel(int i) {
+		String label = getSimpleName(sourceClasses[i]);
+		if (targetClasses[i] != null) {
+			label += " " + getSimpleName(targetClasses[i]) + "@" + Integer.toHexString(targetHashes[i]) + " type " + tweenTypes[i];
+		}
+		return label + " #" + ids[i];
+	}
+
+	private static String getSimpleName(Class<?> type) {
+		String name = type.getName();
+		return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+	}
+
+	private static String getTypeName(int type) {
+		switch (type) {
+			case TweenCallback.BEGIN: return "BEGIN";
+			case TweenCallback.START: return "START";
+			case TweenCallback.END: return "END";
+			case TweenCallback.COMPLETE: return "COMPLETE";
+			case TweenCallback.BACK_BEGIN: return "BACK_BEGIN";
+			case TweenCallback.BACK_START: return "BACK_START";
+			case TweenCallback.BACK_END: return "BACK_END";
+			case TweenCallback.BACK_COMPLETE: return "BACK_COMPLETE";
+			case KILL: return "KILL";
+			default: return String.valueOf(type);
+		}
+	}
+}
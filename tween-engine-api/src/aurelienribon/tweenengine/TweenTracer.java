@@ -0,0 +1,121 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A TweenTracer is told about what the engine does, in order to forward it
+ * to a profiler, like Java Flight Recorder with the "tween-engine-jfr"
+ * module. Only one tracer is installed at a time, for every engine and
+ * every manager. While none is installed, which is the default, the engine
+ * only pays for a null check at each traced point.
+ * <p/>
+ *
+ * Traced points are the updates of the managers, the events and kills of
+ * every tween and timeline, the callbacks slower than a threshold, the pools
+ * running empty, and the builds of the timelines.
+ * Every method does nothing by default: override the ones you need. They are
+ * called by the thread doing the traced work.
+ *
+ * @see TweenMetrics
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public abstract class TweenTracer {
+	static TweenTracer current;
+
+	/**
+	 * Installs a tracer, replacing the current one if any. Null uninstalls
+	 * the current tracer.
+	 */
+	public static void install(TweenTracer tracer) {
+		current = tracer;
+	}
+
+	/**
+	 * Gets the installed tracer, if any.
+	 */
+	public static TweenTracer getInstalled() {
+		return current;
+	}
+
+	// -------------------------------------------------------------------------
+
+	long slowCallbackNanos = 1000000;
+
+	/**
+	 * Sets the duration, in microseconds, from which a callback is reported
+	 * as slow. Defaults to 1000 (one millisecond).
+	 */
+	public void setSlowCallbackThreshold(long micros) {
+		this.slowCallbackNanos = Math.max(micros, 0) * 1000;
+	}
+
+	/**
+	 * Gets the duration, in microseconds, from which a callback is reported
+	 * as slow.
+	 */
+	public long getSlowCallbackThreshold() {
+		return slowCallbackNanos / 1000;
+	}
+
+	// -------------------------------------------------------------------------
+	// Traced points
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Called when a manager starts an update. The returned object, if any,
+	 * is given back to {@link #endUpdate}.
+	 */
+	public Object beginUpdate(TweenManager manager) {
+		return null;
+	}
+
+	/**
+	 * Called when a manager ends an update.
+	 */
+	public void endUpdate(Object token, TweenManager manager) {
+	}
+
+	/**
+	 * Called when a tween or timeline reaches one of the events of
+	 * {@link TweenCallback}, whether it has a callback for it or not.
+	 */
+	public void onEvent(BaseTween<?> source, int type) {
+	}
+
+	/**
+	 * Called when a tween or timeline is killed.
+	 */
+	public void onKill(BaseTween<?> source) {
+	}
+
+	/**
+	 * Called after a callback took at least the threshold to return.
+	 *
+	 * @param source The tween or timeline which fired the event.
+	 * @param type The type of the event, like {@link TweenCallback#COMPLETE}.
+	 * @param nanos The duration of the callback, in nanoseconds.
+	 */
+	public void onSlowCallback(BaseTween<?> source, int type, long nanos) {
+	}
+
+	/**
+	 * Called when a pool had to create an object, because it was empty.
+	 *
+	 * @param pool The exhausted pool.
+	 * @param created The object created for the caller.
+	 */
+	public void onPoolExhausted(Pool<?> pool, BaseTween<?> created) {
+	}
+
+	/**
+	 * Called when a timeline starts being built. The returned object, if any,
+	 * is given back to {@link #endBuild}.
+	 */
+	public Object beginBuild(Timeline timeline) {
+		return null;
+	}
+
+	/**
+	 * Called when a timeline is built.
+	 */
+	public void endBuild(Object token, Timeline timeline) {
+	}
+}
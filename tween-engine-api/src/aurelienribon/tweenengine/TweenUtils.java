@@ -28,6 +28,20 @@ public class TweenUtils {
 	 * @return The parsed equation, or null if there is no match.
 	 */
 	public static TweenEquation parseEasing(String easingName) {
+		TweenEquation[] easings = getEasings();
+
+		for (int i=0; i<easings.length; i++) {
+			if (easingName.equals(easings[i].toString()))
+				return easings[i];
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the built-in equations, always in the same order.
+	 */
+	static TweenEquation[] getEasings() {
 		if (easings == null) {
 			easings = new TweenEquation[] {Linear.INOUT,
 				Quad.IN, Quad.OUT, Quad.INOUT,
@@ -43,11 +57,44 @@ public class TweenUtils {
 			};
 		}
 
-		for (int i=0; i<easings.length; i++) {
-			if (easingName.equals(easings[i].toString()))
-				return easings[i];
-		}
+		return easings;
+	}
 
-		return null;
+	/**
+	 * Gets the high-water marks of the Tween, Timeline, Stagger and
+	 * TweenQueue pools, as a string like "Tween:120 Timeline:8 Stagger:0
+	 * TweenQueue:1". Record it at the end of a representative session, and
+	 * give it to {@link #prewarmPools(String)} at startup.
+	 *
+	 * @see Pool
+	 */
+	public static String getPoolsProfile() {
+		return "Tween:" + Tween.getPool().getHighWater()
+			+ " Timeline:" + Timeline.getPool().getHighWater()
+			+ " Stagger:" + Stagger.getPool().getHighWater()
+			+ " TweenQueue:" + TweenQueue.getPool().getHighWater();
+	}
+
+	/**
+	 * Fills the pools according to a profile recorded with
+	 * {@link #getPoolsProfile()}. Unknown entries are ignored.
+	 *
+	 * @param profile A string like "Tween:120 Timeline:8".
+	 */
+	public static void prewarmPools(String profile) {
+		String[] entries = profile.trim().split("\\s+");
+
+		for (int i=0; i<entries.length; i++) {
+			int idx = entries[i].indexOf(':');
+			if (idx < 0) continue;
+
+			String name = entries[i].substring(0, idx);
+			int size = Integer.parseInt(entries[i].substring(idx+1));
+
+			if (name.equals("Tween")) Tween.getPool().prewarm(size);
+			else if (name.equals("Timeline")) Timeline.getPool().prewarm(size);
+			else if (name.equals("Stagger")) Stagger.getPool().prewarm(size);
+			else if (name.equals("TweenQueue")) TweenQueue.getPool().prewarm(size);
+		}
 	}
 }
@@ -0,0 +1,51 @@
+package aurelienribon.tweenengine;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field as tweenable, so that the annotation processor found in the
+ * tween-engine-processor jar generates the accessor of its class at compile
+ * time. Each group becomes a tween type of the generated accessor, combining
+ * the fields sharing this group in their declaration order:
+ * <p/>
+ *
+ * <pre> {@code
+ * public class Particle {
+ *     @Tweenable(group="POSITION") float x;
+ *     @Tweenable(group="POSITION") float y;
+ *     @Tweenable float alpha;
+ * }
+ * }</pre>
+ *
+ * generates a ParticleAccessor class, next to Particle, with POSITION and
+ * ALPHA tween types. A TweenableIndex class, in the package of the first
+ * annotated class, registers every generated accessor:
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenableIndex.registerAll();
+ * Tween.to(myParticle, ParticleAccessor.POSITION, 1.0f).target(20, 30);
+ * }</pre>
+ *
+ * Generated accessors read and write the fields directly, without any
+ * reflection, so annotated fields can't be private, static or final. The
+ * index class can be renamed with the "tweenengine.index" processor option,
+ * for instance "-Atweenengine.index=com.mygame.Accessors".
+ *
+ * @see TweenAttributeAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Tweenable {
+	/**
+	 * The groups of the field, i.e. the tween types it belongs to. Defaults
+	 * to the name of the field, in upper case.
+	 */
+	String[] group() default {};
+}
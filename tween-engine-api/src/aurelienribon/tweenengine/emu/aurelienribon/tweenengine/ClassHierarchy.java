@@ -0,0 +1,15 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of ClassHierarchy: interfaces of a class are not available at
+ * runtime, so accessors can only be registered with classes.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class ClassHierarchy {
+	private static final Class<?>[] NONE = new Class<?>[0];
+
+	static Class<?>[] getInterfaces(Class<?> type) {
+		return NONE;
+	}
+}
@@ -0,0 +1,13 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of Clock: only milliseconds are available, so short durations
+ * are measured as zero.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class Clock {
+	static long nanoTime() {
+		return System.currentTimeMillis() * 1000000L;
+	}
+}
@@ -0,0 +1,30 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of CommandQueue: there is only one thread, so a plain field is
+ * enough.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class CommandQueue {
+	private TweenManager.Command top;
+
+	void push(TweenManager.Command cmd) {
+		cmd.next = top;
+		top = cmd;
+	}
+
+	TweenManager.Command takeAll() {
+		TweenManager.Command cmd = top;
+		top = null;
+
+		TweenManager.Command first = null;
+		while (cmd != null) {
+			TweenManager.Command next = cmd.next;
+			cmd.next = first;
+			first = cmd;
+			cmd = next;
+		}
+		return first;
+	}
+}
@@ -0,0 +1,39 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of IndexStack: there is only one thread, so plain fields are
+ * enough.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class IndexStack {
+	private int top; // index + 1
+	private int indicesCnt;
+	private int[] links = new int[0]; // next index + 1, and value, of each index
+
+	int create() {
+		return indicesCnt++;
+	}
+
+	int pop() {
+		int index = top - 1;
+		if (index >= 0) top = links[index*2];
+		return index;
+	}
+
+	int getValue(int index) {
+		return links[index*2+1];
+	}
+
+	void push(int index, int value) {
+		if (index*2 >= links.length) {
+			int[] newLinks = new int[Math.max(32, Math.max(index*2+2, links.length*2))];
+			System.arraycopy(links, 0, newLinks, 0, links.length);
+			links = newLinks;
+		}
+
+		links[index*2] = top;
+		links[index*2+1] = value;
+		top = index + 1;
+	}
+}
@@ -0,0 +1,13 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of PropertyAttributes: there is no reflection, so tweens must
+ * use a TweenAccessor.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class PropertyAttributes {
+	static TweenAttribute<Object> get(Class<?> type, String properties) {
+		throw new RuntimeException("Tweening fields by name is not available with GWT, use a TweenAccessor");
+	}
+}
@@ -0,0 +1,273 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenEquations;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.TweenQueue;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Checks that the engine does not allocate once in steady state. Each
+ * scenario is set up, updated for a while so that pools are filled and the
+ * code is compiled, then the bytes allocated by the current thread during the
+ * next frames are measured. Any allocation is a failure: the process exits
+ * with status 1, so that it can gate a build.
+ * <p/>
+ *
+ * Needs a HotSpot-based JVM, for its per-thread allocation counter.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class AllocationCheck {
+	private static final int WARMUP_FRAMES = 20000;
+	private static final int MEASURED_FRAMES = 5000;
+	private static final float DELTA = 1 / 60f;
+
+	public static void main(String[] args) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			System.out.println("Per-thread allocation counters are not supported by this JVM");
+			System.exit(2);
+		}
+
+		threads.setThreadAllocatedMemoryEnabled(true);
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+		Tween.setCombinedAttributesLimit(4);
+		Tween.setWaypointsLimit(4);
+
+		Scenario[] scenarios = {
+			new ManagerScenario(),
+			new TimelineScenario(),
+			new ChurnScenario(),
+			new QueueScenario(),
+			new QueriesScenario()
+		};
+
+		long threadId = Thread.currentThread().getId();
+		long overhead = measureOverhead(threads, threadId);
+		int failures = 0;
+
+		for (Scenario scenario : scenarios) {
+			scenario.setup();
+			for (int i=0; i<WARMUP_FRAMES; i++) scenario.frame();
+
+			long before = threads.getThreadAllocatedBytes(threadId);
+			for (int i=0; i<MEASURED_FRAMES; i++) scenario.frame();
+			long bytes = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+
+			scenario.dispose();
+
+			boolean ok = bytes <= 0;
+			if (!ok) failures += 1;
+			System.out.printf("%-10s %s %d bytes in %d frames%n", scenario.name, ok ? "OK  " : "FAIL", Math.max(bytes, 0), MEASURED_FRAMES);
+		}
+
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	private static long measureOverhead(com.sun.management.ThreadMXBean threads, long threadId) {
+		long overhead = Long.MAX_VALUE;
+		for (int i=0; i<100; i++) {
+			long before = threads.getThreadAllocatedBytes(threadId);
+			long after = threads.getThreadAllocatedBytes(threadId);
+			overhead = Math.min(overhead, after - before);
+		}
+		return overhead;
+	}
+
+	// -------------------------------------------------------------------------
+	// Scenarios
+	// -------------------------------------------------------------------------
+
+	private static abstract class Scenario {
+		final String name;
+		final TweenManager manager = new TweenManager();
+
+		Scenario(String name) {
+			this.name = name;
+		}
+
+		abstract void setup();
+
+		void frame() {
+			manager.update(DELTA);
+		}
+
+		void dispose() {
+			manager.killAll();
+			manager.update(0);
+		}
+	}
+
+	private static final TweenCallback sink = new TweenCallback() {
+		@Override public void onEvent(int type, BaseTween<?> source) {
+			events += type;
+		}
+	};
+
+	private static int events;
+
+	/**
+	 * Endless tweens of every kind: one to four values, waypoints, relative
+	 * targets, callbacks on every event.
+	 */
+	private static class ManagerScenario extends Scenario {
+		ManagerScenario() {super("manager");}
+
+		@Override
+		void setup() {
+			for (int i=0; i<250; i++) {
+				Tween.to(new Particle(), Particle.X, 0.5f)
+					.target(100)
+					.ease(TweenEquations.easeInOutElastic)
+					.repeatYoyo(Tween.INFINITY, 0.1f)
+					.setCallback(sink)
+					.setCallbackTriggers(TweenCallback.ANY)
+					.start(manager);
+
+				Tween.to(new Particle(), Particle.XY, 0.7f)
+					.targetRelative(100, 200)
+					.waypoint(50, 300)
+					.waypoint(80, 0)
+					.repeat(Tween.INFINITY, 0)
+					.start(manager);
+
+				Tween.from(new Particle(), Particle.COLOR, 0.3f)
+					.target(1, 0.5f, 0.25f, 0)
+					.delay(0.2f)
+					.repeatYoyo(Tween.INFINITY, 0)
+					.start(manager);
+			}
+		}
+	}
+
+	/**
+	 * Endless nested timelines, with callbacks.
+	 */
+	private static class TimelineScenario extends Scenario {
+		TimelineScenario() {super("timeline");}
+
+		@Override
+		void setup() {
+			for (int i=0; i<50; i++) {
+				Particle p = new Particle();
+
+				Timeline.createSequence()
+					.push(Tween.set(p, Particle.XY).target(0, 0))
+					.beginParallel()
+						.push(Tween.to(p, Particle.X, 0.4f).target(100))
+						.push(Tween.to(p, Particle.COLOR, 0.6f).target(1, 1, 1, 1))
+						.beginSequence()
+							.pushPause(0.1f)
+							.push(Tween.to(p, Particle.XY, 0.2f).target(10, 20))
+						.end()
+					.end()
+					.push(Tween.call(sink))
+					.repeatYoyo(Tween.INFINITY, 0.05f)
+					.setCallback(sink)
+					.setCallbackTriggers(TweenCallback.ANY)
+					.start(manager);
+			}
+		}
+	}
+
+	/**
+	 * Short-lived tweens and timelines, created every frame from pooled
+	 * objects and freed by the manager once finished.
+	 */
+	private static class ChurnScenario extends Scenario {
+		private final Particle[] particles = new Particle[20];
+
+		ChurnScenario() {super("churn");}
+
+		@Override
+		void setup() {
+			for (int i=0; i<particles.length; i++) particles[i] = new Particle();
+		}
+
+		@Override
+		void frame() {
+			for (int i=0; i<particles.length; i++) {
+				Tween.to(particles[i], Particle.XY, 0.25f).target(i, i).start(manager);
+			}
+
+			Timeline.createParallel()
+				.push(Tween.to(particles[0], Particle.X, 0.1f).target(1))
+				.push(Tween.to(particles[1], Particle.COLOR, 0.1f).target(1, 1, 1, 1))
+				.start(manager);
+
+			manager.update(DELTA);
+		}
+	}
+
+	/**
+	 * A queue fed while it plays.
+	 */
+	private static class QueueScenario extends Scenario {
+		private final Particle particle = new Particle();
+		private TweenQueue queue;
+
+		QueueScenario() {super("queue");}
+
+		@Override
+		void setup() {
+			queue = TweenQueue.create().start(manager);
+			manager.update(DELTA);
+		}
+
+		@Override
+		void frame() {
+			if (queue.getChildren().size() < 3) {
+				queue.push(Tween.to(particle, Particle.X, 0.05f).target(particle.x + 1)).pushPause(0.02f);
+			}
+
+			manager.update(DELTA);
+		}
+	}
+
+	/**
+	 * The queries a game typically makes every frame, plus the debug ones.
+	 */
+	private static class QueriesScenario extends Scenario {
+		private final Particle present = new Particle();
+		private final Particle absent = new Particle();
+		private Timeline timeline;
+
+		QueriesScenario() {super("queries");}
+
+		@Override
+		void setup() {
+			for (int i=0; i<100; i++) {
+				Tween.to(new Particle(), Particle.X, 1).target(1).repeatYoyo(Tween.INFINITY, 0).start(manager);
+			}
+
+			Tween.to(present, Particle.XY, 1).target(1, 1).repeatYoyo(Tween.INFINITY, 0).start(manager);
+
+			timeline = Timeline.createSequence()
+				.push(Tween.to(present, Particle.X, 1).target(1))
+				.push(Tween.to(present, Particle.X, 1).target(0))
+				.repeat(Tween.INFINITY, 0)
+				.start(manager);
+		}
+
+		@Override
+		void frame() {
+			if (!manager.containsTarget(present)) throw new AssertionError();
+			if (manager.containsTarget(absent, Particle.X)) throw new AssertionError();
+			manager.killTarget(absent);
+
+			List<BaseTween<?>> objects = manager.getObjects();
+			for (int i=0, n=objects.size(); i<n; i++) events += objects.get(i).getStep();
+
+			List<BaseTween<?>> children = timeline.getChildren();
+			for (int i=0, n=children.size(); i<n; i++) events += children.get(i).getStep();
+
+			events += manager.getRunningTweensCount() + manager.getRunningTimelinesCount();
+			manager.update(DELTA);
+		}
+	}
+}
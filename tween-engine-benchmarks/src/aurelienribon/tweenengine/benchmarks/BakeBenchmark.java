@@ -0,0 +1,79 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.BakedAnimation;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenBaker;
+import aurelienribon.tweenengine.equations.Quad;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One frame of a sequence of size parallel timelines, each one moving size
+ * particles, either updated live or applied from its baked keyframes.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BakeBenchmark {
+	@Param({"10", "30"})
+	public int size;
+
+	private Timeline live;
+	private BakedAnimation baked;
+	private Object[] targets;
+	private float time;
+
+	@Setup
+	public void setup() throws IOException {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+
+		Particle[] particles = new Particle[size];
+		for (int i=0; i<size; i++) particles[i] = new Particle();
+
+		live = build(particles).repeat(Tween.INFINITY, 0).start();
+
+		File file = File.createTempFile("bake", ".anim");
+		file.deleteOnExit();
+		List<Object> list = TweenBaker.bake(build(particles), 60, file);
+		baked = BakedAnimation.map(file);
+		targets = list.toArray();
+	}
+
+	@Benchmark
+	public Timeline live() {
+		live.update(0.016f);
+		return live;
+	}
+
+	@Benchmark
+	public BakedAnimation baked() {
+		time = (time + 0.016f) % baked.getDuration();
+		baked.apply(time, targets);
+		return baked;
+	}
+
+	private Timeline build(Particle[] particles) {
+		Timeline tl = Timeline.createSequence();
+		for (int i=0; i<size; i++) {
+			tl.beginParallel();
+			for (int ii=0; ii<size; ii++) {
+				tl.push(Tween.to(particles[ii], Particle.XY, 0.5f).target(i*10, ii*10).ease(Quad.INOUT));
+			}
+			tl.end();
+		}
+		return tl;
+	}
+}
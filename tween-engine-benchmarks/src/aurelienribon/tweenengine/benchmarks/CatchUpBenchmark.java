@@ -0,0 +1,60 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Large-delta catch-up: a single update jumping over many short iterations,
+ * like after the application was suspended. Each invocation creates, plays
+ * and frees its animation.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatchUpBenchmark {
+	@Param({"100", "10000"})
+	public int iterations;
+
+	private final Particle target = new Particle();
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+	}
+
+	@Benchmark
+	public Tween tween() {
+		Tween tween = Tween.to(target, Particle.XY, 0.01f)
+			.target(100, 200)
+			.repeatYoyo(iterations, 0)
+			.start();
+
+		tween.update(iterations * 0.01f + 1);
+		tween.free();
+		return tween;
+	}
+
+	@Benchmark
+	public Timeline timeline() {
+		Timeline timeline = Timeline.createSequence()
+			.push(Tween.to(target, Particle.X, 0.01f).target(100))
+			.push(Tween.to(target, Particle.X, 0.01f).target(0))
+			.repeat(iterations, 0)
+			.start();
+
+		timeline.update(iterations * 0.02f + 1);
+		timeline.free();
+		return timeline;
+	}
+}
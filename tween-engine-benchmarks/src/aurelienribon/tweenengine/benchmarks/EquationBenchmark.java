@@ -0,0 +1,56 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenEquations;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Every easing equation, computed over its whole [0, 1] range.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EquationBenchmark {
+	private static final int STEPS = 100;
+
+	@Param({
+		"easeNone",
+		"easeInQuad", "easeOutQuad", "easeInOutQuad",
+		"easeInCubic", "easeOutCubic", "easeInOutCubic",
+		"easeInQuart", "easeOutQuart", "easeInOutQuart",
+		"easeInQuint", "easeOutQuint", "easeInOutQuint",
+		"easeInCirc", "easeOutCirc", "easeInOutCirc",
+		"easeInSine", "easeOutSine", "easeInOutSine",
+		"easeInExpo", "easeOutExpo", "easeInOutExpo",
+		"easeInBack", "easeOutBack", "easeInOutBack",
+		"easeInBounce", "easeOutBounce", "easeInOutBounce",
+		"easeInElastic", "easeOutElastic", "easeInOutElastic"
+	})
+	public String equation;
+
+	private TweenEquation eq;
+
+	@Setup
+	public void setup() throws Exception {
+		eq = (TweenEquation) TweenEquations.class.getField(equation).get(null);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public float compute() {
+		float sum = 0;
+		for (int i=0; i<STEPS; i++) sum += eq.compute(i / (float) (STEPS-1));
+		return sum;
+	}
+}
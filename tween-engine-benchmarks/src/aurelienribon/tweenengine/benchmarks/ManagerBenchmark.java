@@ -0,0 +1,83 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * TweenManager with many endless tweens: one frame of update, and lookups
+ * of a target that is not managed (the worst case, scanning everything).
+ * The tweens are either added alone, or nested by four in timelines: a
+ * sequence holding a parallel timeline.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ManagerBenchmark {
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"tweens", "timelines"})
+	public String content;
+
+	private TweenManager manager;
+	private final Particle missing = new Particle();
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+		manager = new TweenManager();
+		manager.ensureCapacity(size);
+
+		if (content.equals("tweens")) {
+			for (int i=0; i<size; i++) {
+				Tween.to(new Particle(), Particle.XY, 1.0f)
+					.target(100, 200)
+					.repeatYoyo(Tween.INFINITY, 0)
+					.start(manager);
+			}
+		} else {
+			for (int i=0; i<size; i+=4) {
+				Timeline.createSequence()
+					.push(Tween.to(new Particle(), Particle.XY, 1.0f).target(100, 200))
+					.beginParallel()
+						.push(Tween.to(new Particle(), Particle.XY, 1.0f).target(100, 200))
+						.push(Tween.to(new Particle(), Particle.XY, 1.0f).target(100, 200))
+					.end()
+					.push(Tween.to(new Particle(), Particle.XY, 1.0f).target(100, 200))
+					.repeatYoyo(Tween.INFINITY, 0)
+					.start(manager);
+			}
+		}
+
+		manager.update(0.5f);
+	}
+
+	@Benchmark
+	public TweenManager update() {
+		manager.update(0.016f);
+		return manager;
+	}
+
+	@Benchmark
+	public boolean containsTarget() {
+		return manager.containsTarget(missing);
+	}
+
+	@Benchmark
+	public TweenManager killTarget() {
+		manager.killTarget(missing, Particle.XY);
+		return manager;
+	}
+}
@@ -0,0 +1,49 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.TweenAccessor;
+
+/**
+ * A minimal tween target, with its accessor.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class Particle {
+	public static final int X = 0;
+	public static final int XY = 1;
+	public static final int COLOR = 2;
+
+	public float x, y;
+	public float r, g, b, a;
+
+	public static class Accessor implements TweenAccessor<Particle> {
+		@Override
+		public int getValues(Particle target, int tweenType, float[] returnValues) {
+			switch (tweenType) {
+				case X: returnValues[0] = target.x; return 1;
+				case XY: returnValues[0] = target.x; returnValues[1] = target.y; return 2;
+				case COLOR:
+					returnValues[0] = target.r;
+					returnValues[1] = target.g;
+					returnValues[2] = target.b;
+					returnValues[3] = target.a;
+					return 4;
+				default: assert false; return 0;
+			}
+		}
+
+		@Override
+		public void setValues(Particle target, int tweenType, float[] newValues) {
+			switch (tweenType) {
+				case X: target.x = newValues[0]; break;
+				case XY: target.x = newValues[0]; target.y = newValues[1]; break;
+				case COLOR:
+					target.r = newValues[0];
+					target.g = newValues[1];
+					target.b = newValues[2];
+					target.a = newValues[3];
+					break;
+				default: assert false; break;
+			}
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.TweenPaths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The CatmullRom path, with N waypoints between the start and target values.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathBenchmark {
+	private static final int STEPS = 100;
+
+	@Param({"1", "4", "16", "64"})
+	public int waypoints;
+
+	private float[] points;
+
+	@Setup
+	public void setup() {
+		points = new float[waypoints+2];
+		for (int i=0; i<points.length; i++) points[i] = (i * 37) % 11;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public float catmullRom() {
+		float sum = 0;
+		for (int i=0; i<STEPS; i++) sum += TweenPaths.catmullRom.compute(i / (float) (STEPS-1), points, points.length);
+		return sum;
+	}
+}
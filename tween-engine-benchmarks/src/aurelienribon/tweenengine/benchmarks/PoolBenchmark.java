@@ -0,0 +1,36 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.Tween;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Pool churn: a tween taken from the pool with Tween.to(), built, and sent
+ * back with free().
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoolBenchmark {
+	private final Particle target = new Particle();
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+	}
+
+	@Benchmark
+	public Tween toAndFree() {
+		Tween tween = Tween.to(target, Particle.XY, 1.0f).target(100, 200).build();
+		tween.free();
+		return tween;
+	}
+}
@@ -0,0 +1,89 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Tweens of the x and y of a particle, either through its accessor, or
+ * through the names "x,y" of its fields or of the bean properties of a
+ * BeanParticle: one frame of a manager with many endless tweens, and the
+ * creation of a single tween, given back with free().
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropertyBenchmark {
+	private static final int SIZE = 1000;
+
+	@Param({"accessor", "fields", "bean"})
+	public String access;
+
+	private TweenManager manager;
+	private Object target;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+		manager = new TweenManager();
+		manager.ensureCapacity(SIZE);
+
+		for (int i=0; i<SIZE; i++) {
+			create(newTarget()).repeatYoyo(Tween.INFINITY, 0).start(manager);
+		}
+
+		manager.update(0.5f);
+		target = newTarget();
+	}
+
+	@Benchmark
+	public TweenManager update() {
+		manager.update(0.016f);
+		return manager;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Tween toAndFree() {
+		Tween tween = create(target).build();
+		tween.free();
+		return tween;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private Object newTarget() {
+		return access.equals("bean") ? new BeanParticle() : new Particle();
+	}
+
+	private Tween create(Object target) {
+		Tween tween = access.equals("accessor")
+			? Tween.to(target, Particle.XY, 1.0f)
+			: Tween.to(target, "x,y", 1.0f);
+		return tween.target(100, 200);
+	}
+
+	/**
+	 * A particle only exposing its position through getters and setters.
+	 */
+	public static class BeanParticle {
+		private final float[] position = new float[2];
+
+		public float getX() {return position[0];}
+		public void setX(float x) {position[0] = x;}
+		public float getY() {return position[1];}
+		public void setY(float y) {position[1] = y;}
+	}
+}
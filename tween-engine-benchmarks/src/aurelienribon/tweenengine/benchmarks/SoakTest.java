@@ -0,0 +1,393 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenEquations;
+import aurelienribon.tweenengine.TweenManager;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Headless soak test: runs a synthetic workload through a TweenManager for a
+ * long time, as fast as possible, and reports the latency of the updates and
+ * of the kill storms, the GC pauses and the heap retained after the last GC,
+ * period after period.
+ * A performance cliff shows up as a rising p99, a leak as a heap that keeps
+ * growing.
+ * <p/>
+ *
+ * Options are given as key=value arguments (see {@link #defaults()}), for
+ * instance "duration=600 spawn=5000 killStorm=2". Times are in seconds:
+ * "duration" and "report" are real time, the others are animation time,
+ * which advances by "delta" at each update. With "maxP99" (microseconds) or
+ * "maxHeapGrowth" (megabytes), the process exits with status 1 when the
+ * limit is exceeded, to gate a CI build.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class SoakTest {
+	private static Map<String, String> defaults() {
+		Map<String, String> options = new LinkedHashMap<String, String>();
+		options.put("duration", "60");      // real time to run
+		options.put("report", "10");        // real time between reports
+		options.put("delta", "0.016");      // animation time of an update
+		options.put("targets", "10000");    // number of animated objects
+		options.put("spawn", "2000");       // objects started per second
+		options.put("timelines", "0.2");    // part of them being timelines
+		options.put("repeat", "0.3");       // part of them being repeated
+		options.put("yoyo", "0.5");         // part of the repeated ones being yoyo
+		options.put("waypoints", "0.2");    // part of the tweens with waypoints
+		options.put("killStorm", "5");      // time between kill storms, 0 for none
+		options.put("killRatio", "0.1");    // part of the targets killed by a storm
+		options.put("seed", "1");
+		options.put("maxP99", "0");         // limit of the p99 latency, 0 for none
+		options.put("maxHeapGrowth", "0");  // limit of the heap growth, 0 for none
+		return options;
+	}
+
+	public static void main(String[] args) {
+		Map<String, String> options = defaults();
+		for (String arg : args) {
+			int idx = arg.indexOf('=');
+			if (idx < 0 || !options.containsKey(arg.substring(0, idx))) {
+				System.out.println("Unknown option: " + arg + ", options are " + options);
+				System.exit(2);
+			}
+			options.put(arg.substring(0, idx), arg.substring(idx+1));
+		}
+
+		System.out.println("Soak test " + options);
+		SoakTest test = new SoakTest(options);
+		System.exit(test.run() ? 0 : 1);
+	}
+
+	// -------------------------------------------------------------------------
+	// Workload
+	// -------------------------------------------------------------------------
+
+	private static final TweenEquation[] equations = {
+		TweenEquations.easeNone, TweenEquations.easeInOutQuad, TweenEquations.easeOutCubic,
+		TweenEquations.easeOutBack, TweenEquations.easeOutBounce, TweenEquations.easeInOutElastic
+	};
+
+	private final Map<String, String> options;
+	private final float delta;
+	private final float spawnRate, timelinesRatio, repeatRatio, yoyoRatio, waypointsRatio;
+	private final float killStorm, killRatio;
+	private final Particle[] particles;
+	private final Random rand;
+	private final TweenManager manager = new TweenManager();
+
+	private float spawnDebt;
+	private float timeBeforeStorm;
+
+	private SoakTest(Map<String, String> options) {
+		this.options = options;
+		this.delta = getFloat("delta");
+		this.spawnRate = getFloat("spawn");
+		this.timelinesRatio = getFloat("timelines");
+		this.repeatRatio = getFloat("repeat");
+		this.yoyoRatio = getFloat("yoyo");
+		this.waypointsRatio = getFloat("waypoints");
+		this.killStorm = getFloat("killStorm");
+		this.killRatio = getFloat("killRatio");
+		this.rand = new Random((long) getFloat("seed"));
+		this.particles = new Particle[(int) getFloat("targets")];
+		for (int i=0; i<particles.length; i++) particles[i] = new Particle();
+		this.timeBeforeStorm = killStorm;
+
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+		Tween.setCombinedAttributesLimit(4);
+		Tween.setWaypointsLimit(2);
+	}
+
+	private float getFloat(String key) {
+		return Float.parseFloat(options.get(key));
+	}
+
+	private void spawn() {
+		spawnDebt += spawnRate * delta;
+
+		while (spawnDebt >= 1) {
+			spawnDebt -= 1;
+			BaseTween<?> obj = rand.nextFloat() < timelinesRatio ? createTimeline() : createTween(randomParticle());
+
+			if (rand.nextFloat() < repeatRatio) {
+				int count = 1 + rand.nextInt(4);
+				if (rand.nextFloat() < yoyoRatio) obj.repeatYoyo(count, rand.nextFloat() * 0.2f);
+				else obj.repeat(count, rand.nextFloat() * 0.2f);
+			}
+
+			obj.start(manager);
+		}
+	}
+
+	private Tween createTween(Particle p) {
+		float duration = 0.1f + rand.nextFloat() * 2;
+		TweenEquation equation = equations[rand.nextInt(equations.length)];
+		Tween tween;
+
+		switch (rand.nextInt(3)) {
+			case 0:
+				tween = Tween.to(p, Particle.X, duration).target(rand.nextFloat() * 100);
+				break;
+
+			case 1:
+				tween = Tween.to(p, Particle.XY, duration).target(rand.nextFloat() * 100, rand.nextFloat() * 100);
+				if (rand.nextFloat() < waypointsRatio) tween.waypoint(rand.nextFloat() * 100, rand.nextFloat() * 100);
+				break;
+
+			default:
+				tween = Tween.from(p, Particle.COLOR, duration).target(1, 1, 1, 0);
+				break;
+		}
+
+		return tween.ease(equation).delay(rand.nextFloat() * 0.1f);
+	}
+
+	private Timeline createTimeline() {
+		Particle p = randomParticle();
+
+		return Timeline.createSequence()
+			.push(createTween(p))
+			.beginParallel()
+				.push(createTween(p))
+				.push(createTween(randomParticle()))
+			.end()
+			.pushPause(rand.nextFloat() * 0.1f)
+			.push(createTween(p));
+	}
+
+	private boolean killStorm() {
+		if (killStorm <= 0) return false;
+		timeBeforeStorm -= delta;
+		if (timeBeforeStorm > 0) return false;
+
+		timeBeforeStorm += killStorm;
+		for (int i=0, n=(int) (particles.length * killRatio); i<n; i++) manager.killTarget(randomParticle());
+		return true;
+	}
+
+	private Particle randomParticle() {
+		return particles[rand.nextInt(particles.length)];
+	}
+
+	// -------------------------------------------------------------------------
+	// Run
+	// -------------------------------------------------------------------------
+
+	private boolean run() {
+		GcWatcher gc = new GcWatcher();
+		Histogram period = new Histogram();
+		Histogram total = new Histogram();
+		Histogram storms = new Histogram();
+
+		long duration = (long) (getFloat("duration") * 1e9);
+		long reportInterval = (long) (getFloat("report") * 1e9);
+		long start = System.nanoTime();
+		long nextReport = start + reportInterval;
+		long firstHeap = -1, lastHeap = -1;
+
+		while (true) {
+			spawn();
+
+			long time = System.nanoTime();
+			if (killStorm()) storms.record(System.nanoTime() - time);
+
+			time = System.nanoTime();
+			manager.update(delta);
+			long now = System.nanoTime();
+			period.record(now - time);
+
+			if (now >= nextReport || now - start >= duration) {
+				long heap = getHeapAfterGc();
+				if (heap >= 0) lastHeap = heap;
+				if (firstHeap < 0) firstHeap = heap;
+
+				System.out.printf("[%5.0fs] %s | objects %d, tweens %d | gc %s | heap after gc %s%n",
+					(now - start) / 1e9, period, manager.size(), manager.getRunningTweensCount(),
+					gc.takePeriod(), formatHeap(heap));
+
+				total.add(period);
+				period.clear();
+				nextReport += reportInterval;
+				if (now - start >= duration) break;
+			}
+		}
+
+		// The first period warms the engine up and fills the pools: growth
+		// is measured from its end. Without any GC, it can't be measured.
+		float heapGrowth = firstHeap >= 0 ? (lastHeap - firstHeap) / 1048576f : 0;
+		System.out.printf("Total: %s | kill storms: %s | gc %s | heap growth %s%n", total, storms, gc.getTotal(),
+			firstHeap >= 0 ? String.format("%.1f MB", heapGrowth) : "none, no gc");
+
+		boolean ok = true;
+		float maxP99 = getFloat("maxP99");
+		float maxHeapGrowth = getFloat("maxHeapGrowth");
+
+		if (maxP99 > 0 && total.getPercentile(0.99) / 1000f > maxP99) {
+			System.out.println("FAIL: p99 latency above " + maxP99 + "us");
+			ok = false;
+		}
+
+		if (maxHeapGrowth > 0 && heapGrowth > maxHeapGrowth) {
+			System.out.println("FAIL: heap growth above " + maxHeapGrowth + "MB");
+			ok = false;
+		}
+
+		return ok;
+	}
+
+	/**
+	 * Sum of the heap pools as left by their last collection, or -1 if no
+	 * collection happened yet.
+	 */
+	private static long getHeapAfterGc() {
+		long collections = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections += Math.max(bean.getCollectionCount(), 0);
+		}
+		if (collections == 0) return -1;
+
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+			if (usage != null) used += usage.getUsed();
+		}
+		return used;
+	}
+
+	private static String formatHeap(long bytes) {
+		return bytes >= 0 ? String.format("%.1f MB", bytes / 1048576.0) : "none, no gc yet";
+	}
+
+	// -------------------------------------------------------------------------
+	// Histogram
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Log-linear histogram of durations in nanoseconds: exact below 64ns,
+	 * then 32 buckets per power of two, i.e. about 3% precision.
+	 */
+	private static class Histogram {
+		private final long[] counts = new long[64 + 58*32];
+		private long count, sum, max;
+
+		void record(long nanos) {
+			counts[getBucket(Math.max(nanos, 0))] += 1;
+			count += 1;
+			sum += nanos;
+			max = Math.max(max, nanos);
+		}
+
+		void add(Histogram other) {
+			for (int i=0; i<counts.length; i++) counts[i] += other.counts[i];
+			count += other.count;
+			sum += other.sum;
+			max = Math.max(max, other.max);
+		}
+
+		void clear() {
+			for (int i=0; i<counts.length; i++) counts[i] = 0;
+			count = sum = max = 0;
+		}
+
+		long getPercentile(double percentile) {
+			long rank = (long) Math.ceil(percentile * count);
+			long seen = 0;
+
+			for (int i=0; i<counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) return Math.min(getValue(i), max);
+			}
+
+			return max;
+		}
+
+		private static int getBucket(long nanos) {
+			if (nanos < 64) return (int) nanos;
+			int shift = 63 - Long.numberOfLeadingZeros(nanos) - 5;
+			return 64 + (shift-1)*32 + (int) (nanos >> shift) - 32;
+		}
+
+		private static long getValue(int bucket) {
+			if (bucket < 64) return bucket;
+			int shift = (bucket - 64) / 32 + 1;
+			return ((bucket - 64) % 32 + 32L + 1) << shift;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("n=%d, p50 %.1fus, p99 %.1fus, p999 %.1fus, max %.1fus",
+				count, getPercentile(0.5) / 1e3, getPercentile(0.99) / 1e3, getPercentile(0.999) / 1e3, max / 1e3);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// GC
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gathers the GC pauses, from the notifications sent by the JVM.
+	 */
+	private static class GcWatcher implements NotificationListener {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong time = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+		private long totalCount, totalTime, totalMax;
+
+		GcWatcher() {
+			for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (bean instanceof NotificationEmitter) ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+			}
+		}
+
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+			GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+			// Concurrent cycles run beside the application: they are not pauses
+			if (info.getGcCause().equals("No GC") || info.getGcName().contains("Concurrent")) return;
+
+			long duration = info.getGcInfo().getDuration();
+			count.incrementAndGet();
+			time.addAndGet(duration);
+
+			long current;
+			do {
+				current = max.get();
+			} while (duration > current && !max.compareAndSet(current, duration));
+		}
+
+		String takePeriod() {
+			long c = count.getAndSet(0), t = time.getAndSet(0), m = max.getAndSet(0);
+			totalCount += c;
+			totalTime += t;
+			totalMax = Math.max(totalMax, m);
+			return format(c, t, m);
+		}
+
+		String getTotal() {
+			return format(totalCount, totalTime, totalMax);
+		}
+
+		private static String format(long count, long time, long max) {
+			return count + " pauses, " + time + "ms, max " + max + "ms";
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package aurelienribon.tweenengine.benchmarks;
+
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One frame of an endless timeline, either deep (size nested sequences, one
+ * tween at the bottom) or wide (one parallel timeline of size tweens).
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimelineBenchmark {
+	@Param({"10", "100", "1000"})
+	public int size;
+
+	private Timeline deep;
+	private Timeline wide;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Particle.class, new Particle.Accessor());
+
+		Timeline tl = Timeline.createSequence();
+		for (int i=0; i<size; i++) tl = tl.beginSequence();
+		tl.push(Tween.to(new Particle(), Particle.X, 1.0f).target(100));
+		for (int i=0; i<size; i++) tl = tl.end();
+		deep = tl.repeatYoyo(Tween.INFINITY, 0).start();
+
+		tl = Timeline.createParallel();
+		for (int i=0; i<size; i++) tl.push(Tween.to(new Particle(), Particle.X, 1.0f).target(100));
+		wide = tl.repeatYoyo(Tween.INFINITY, 0).start();
+	}
+
+	@Benchmark
+	public Timeline deep() {
+		deep.update(0.016f);
+		return deep;
+	}
+
+	@Benchmark
+	public Timeline wide() {
+		wide.update(0.016f);
+		return wide;
+	}
+}
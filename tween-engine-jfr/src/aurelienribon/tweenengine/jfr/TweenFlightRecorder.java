@@ -0,0 +1,198 @@
+package aurelienribon.tweenengine.jfr;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Pool;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.TweenTracer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emits Java Flight Recorder events for the tween engine, so that frame-time
+ * spikes seen in a recording can be blamed on the engine or on callbacks:
+ * <p/>
+ *
+ * <b>aurelienribon.tweenengine.Update</b>: a TweenManager update, with its
+ * running tweens and timelines<br/>
+ * <b>aurelienribon.tweenengine.SlowCallback</b>: a callback slower than the
+ * threshold, with its event type and the class of the user data<br/>
+ * <b>aurelienribon.tweenengine.PoolExhausted</b>: an object created because
+ * its pool was empty<br/>
+ * <b>aurelienribon.tweenengine.TimelineBuild</b>: a timeline being built
+ * <p/>
+ *
+ * Call {@link #install()} at startup and leave it there: when no recording
+ * is running, or when these events are disabled in its settings, events
+ * cost about as much as a field read. Needs Java 11 or later.
+ *
+ * <pre> {@code
+ * TweenFlightRecorder.install().setSlowCallbackThreshold(500);
+ * // java -XX:StartFlightRecording=filename=game.jfr ...
+ * }</pre>
+ *
+ * @see TweenTracer
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenFlightRecorder extends TweenTracer {
+	/**
+	 * Installs a new recorder as the tracer of the engine, and returns it.
+	 */
+	public static TweenFlightRecorder install() {
+		TweenFlightRecorder recorder = new TweenFlightRecorder();
+		TweenTracer.install(recorder);
+		return recorder;
+	}
+
+	// -------------------------------------------------------------------------
+	// Events
+	// -------------------------------------------------------------------------
+
+	@Name("aurelienribon.tweenengine.Update")
+	@Label("Tween Manager Update")
+	@Category("Tween Engine")
+	@Description("An update of a TweenManager")
+	@StackTrace(false)
+	static class UpdateEvent extends Event {
+		@Label("Objects") @Description("Tweens and timelines managed at top level")
+		int objects;
+
+		@Label("Tweens") @Description("Running tweens, nested ones included")
+		int tweens;
+
+		@Label("Timelines") @Description("Running timelines, nested ones included")
+		int timelines;
+	}
+
+	@Name("aurelienribon.tweenengine.SlowCallback")
+	@Label("Slow Tween Callback")
+	@Category("Tween Engine")
+	@Description("A TweenCallback that took longer than the threshold")
+	static class SlowCallbackEvent extends Event {
+		@Label("Callback Duration") @Timespan(Timespan.NANOSECONDS)
+		long callbackDuration;
+
+		@Label("Event Type") @Description("TweenCallback event type, like COMPLETE")
+		String eventType;
+
+		@Label("Source Class")
+		Class<?> sourceClass;
+
+		@Label("User Data Class")
+		Class<?> userDataClass;
+	}
+
+	@Name("aurelienribon.tweenengine.PoolExhausted")
+	@Label("Tween Pool Exhausted")
+	@Category("Tween Engine")
+	@Description("An object created because its pool was empty")
+	static class PoolExhaustedEvent extends Event {
+		@Label("Object Class")
+		Class<?> objectClass;
+
+		@Label("Misses") @Description("Objects created by the pool so far")
+		int misses;
+
+		@Label("High Water") @Description("Highest number of objects in use at the same time")
+		int highWater;
+	}
+
+	@Name("aurelienribon.tweenengine.TimelineBuild")
+	@Label("Timeline Build")
+	@Category("Tween Engine")
+	@Description("The build of a timeline, computing the delays of its children")
+	static class TimelineBuildEvent extends Event {
+		@Label("Children") @Description("Direct children of the timeline")
+		int children;
+	}
+
+	// -------------------------------------------------------------------------
+	// Tracer impl.
+	// -------------------------------------------------------------------------
+
+	@Override
+	public Object beginUpdate(TweenManager manager) {
+		UpdateEvent event = new UpdateEvent();
+		if (!event.isEnabled()) return null;
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endUpdate(Object token, TweenManager manager) {
+		if (token == null) return;
+		UpdateEvent event = (UpdateEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.objects = manager.size();
+			event.tweens = manager.getRunningTweensCount();
+			event.timelines = manager.getRunningTimelinesCount();
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onSlowCallback(BaseTween<?> source, int type, long nanos) {
+		SlowCallbackEvent event = new SlowCallbackEvent();
+		if (!event.isEnabled()) return;
+
+		event.callbackDuration = nanos;
+		event.eventType = getEventTypeName(type);
+		event.sourceClass = source.getClass();
+		event.userDataClass = source.getUserData() != null ? source.getUserData().getClass() : null;
+		event.commit();
+	}
+
+	@Override
+	public void onPoolExhausted(Pool<?> pool, BaseTween<?> created) {
+		PoolExhaustedEvent event = new PoolExhaustedEvent();
+		if (!event.isEnabled()) return;
+
+		event.objectClass = created.getClass();
+		event.misses = pool.getMisses();
+		event.highWater = pool.getHighWater();
+		event.commit();
+	}
+
+	@Override
+	public Object beginBuild(Timeline timeline) {
+		TimelineBuildEvent event = new TimelineBuildEvent();
+		if (!event.isEnabled()) return null;
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endBuild(Object token, Timeline timeline) {
+		if (token == null) return;
+		TimelineBuildEvent event = (TimelineBuildEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.children = timeline.getChildren().size();
+			event.commit();
+		}
+	}
+
+	private static String getEventTypeName(int type) {
+		switch (type) {
+			case TweenCallback.BEGIN: return "BEGIN";
+			case TweenCallback.START: return "START";
+			case TweenCallback.END: return "END";
+			case TweenCallback.COMPLETE: return "COMPLETE";
+			case TweenCallback.BACK_BEGIN: return "BACK_BEGIN";
+			case TweenCallback.BACK_START: return "BACK_START";
+			case TweenCallback.BACK_END: return "BACK_END";
+			case TweenCallback.BACK_COMPLETE: return "BACK_COMPLETE";
+			case TweenCallback.SYNC_COMPLETE: return "SYNC_COMPLETE";
+			default: return Integer.toString(type);
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package aurelienribon.tweenengine.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the TweenAccessors of the classes whose fields are annotated with
+ * {@code @Tweenable}, and an index class registering all of them. See the
+ * documentation of aurelienribon.tweenengine.Tweenable.
+ * <p/>
+ *
+ * Generated accessors extend TweenAttributeAccessor: each group of fields
+ * becomes a tween type, i.e. an int constant, resolved into an attribute
+ * that reads and writes the fields directly.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenableProcessor extends AbstractProcessor {
+	private static final String ANNOTATION = "aurelienribon.tweenengine.Tweenable";
+	private static final String INDEX_OPTION = "tweenengine.index";
+	private static final String INDEX_NAME = "TweenableIndex";
+
+	// Public classes with a generated accessor, waiting to be indexed
+	private final List<TypeElement> indexedTypes = new ArrayList<TypeElement>();
+	private boolean isIndexWritten = false;
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(ANNOTATION);
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(INDEX_OPTION);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (annotations.isEmpty()) return false;
+		TypeElement annotation = annotations.iterator().next();
+
+		// Groups the annotated fields by class, then by group, keeping the
+		// declaration order
+
+		Map<TypeElement, Map<String, List<VariableElement>>> types = new LinkedHashMap<TypeElement, Map<String, List<VariableElement>>>();
+
+		for (Element elem : roundEnv.getElementsAnnotatedWith(annotation)) {
+			if (elem.getKind() != ElementKind.FIELD) continue;
+			VariableElement field = (VariableElement) elem;
+			if (!checkField(field)) continue;
+
+			TypeElement type = (TypeElement) field.getEnclosingElement();
+			Map<String, List<VariableElement>> groups = types.get(type);
+			if (groups == null) types.put(type, groups = new LinkedHashMap<String, List<VariableElement>>());
+
+			for (String group : getGroups(field, annotation)) {
+				if (!SourceVersion.isName(group)) {
+					error(field, "\"" + group + "\" is not a valid tween type name");
+					continue;
+				}
+
+				List<VariableElement> fields = groups.get(group);
+				if (fields == null) groups.put(group, fields = new ArrayList<VariableElement>());
+				fields.add(field);
+			}
+		}
+
+		for (Map.Entry<TypeElement, Map<String, List<VariableElement>>> e : types.entrySet()) {
+			TypeElement type = e.getKey();
+			writeAccessor(type, e.getValue());
+
+			if (isPublic(type)) {
+				indexedTypes.add(type);
+			} else {
+				note(type, getAccessorName(type) + " is not registered by the index since "
+					+ type.getSimpleName() + " is not public");
+			}
+		}
+
+		if (!indexedTypes.isEmpty()) {
+			if (isIndexWritten) {
+				warning(indexedTypes.get(0), "Accessors generated after the index was written are not registered by it");
+			} else {
+				writeIndex();
+				isIndexWritten = true;
+			}
+		}
+
+		return true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Checks
+	// -------------------------------------------------------------------------
+
+	private boolean checkField(VariableElement field) {
+		Set<Modifier> mods = field.getModifiers();
+
+		if (mods.contains(Modifier.PRIVATE) || mods.contains(Modifier.STATIC) || mods.contains(Modifier.FINAL)) {
+			error(field, "@Tweenable fields can't be private, static or final");
+			return false;
+		}
+
+		if (getConversion(field.asType().getKind()) == null) {
+			error(field, "@Tweenable fields must have a primitive numeric type");
+			return false;
+		}
+
+		return true;
+	}
+
+	private List<String> getGroups(VariableElement field, TypeElement annotation) {
+		List<String> groups = new ArrayList<String>();
+
+		for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+			if (!mirror.getAnnotationType().asElement().equals(annotation)) continue;
+
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : mirror.getElementValues().entrySet()) {
+				if (!e.getKey().getSimpleName().contentEquals("group")) continue;
+				for (Object value : (List<?>) e.getValue().getValue()) {
+					groups.add((String) ((AnnotationValue) value).getValue());
+				}
+			}
+		}
+
+		if (groups.isEmpty()) groups.add(field.getSimpleName().toString().toUpperCase());
+		return groups;
+	}
+
+	private boolean isPublic(TypeElement type) {
+		for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			if (!e.getModifiers().contains(Modifier.PUBLIC)) return false;
+		}
+		return true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Generation
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Returns the patterns converting a field value to a float, and a float
+	 * to the field type, or null if the type is not handled.
+	 */
+	private static String[] getConversion(TypeKind kind) {
+		switch (kind) {
+			case FLOAT: return new String[] {"%s", "%s"};
+			case DOUBLE: return new String[] {"(float) %s", "%s"};
+			case INT: return new String[] {"%s", "Math.round(%s)"};
+			case LONG: return new String[] {"%s", "Math.round((double) %s)"};
+			case SHORT: return new String[] {"%s", "(short) Math.round(%s)"};
+			case BYTE: return new String[] {"%s", "(byte) Math.round(%s)"};
+			default: return null;
+		}
+	}
+
+	private String getPackageName(Element elem) {
+		while (!(elem instanceof PackageElement)) elem = elem.getEnclosingElement();
+		return ((PackageElement) elem).getQualifiedName().toString();
+	}
+
+	private String getAccessorName(TypeElement type) {
+		String pkg = getPackageName(type);
+		String name = type.getQualifiedName().toString();
+		if (pkg.length() > 0) name = name.substring(pkg.length()+1);
+		return name.replace('.', '_') + "Accessor";
+	}
+
+	private String getQualifiedName(String pkg, String name) {
+		return pkg.length() > 0 ? pkg + "." + name : name;
+	}
+
+	private void writeAccessor(TypeElement type, Map<String, List<VariableElement>> groups) {
+		String pkg = getPackageName(type);
+		String name = getAccessorName(type);
+		String target = type.getQualifiedName().toString();
+		String visibility = isPublic(type) ? "public " : "";
+
+		StringBuilder sb = new StringBuilder();
+		if (pkg.length() > 0) sb.append("package ").append(pkg).append(";\n\n");
+
+		sb.append("import aurelienribon.tweenengine.TweenAttribute;\n");
+		sb.append("import aurelienribon.tweenengine.TweenAttributeAccessor;\n\n");
+		sb.append("/**\n");
+		sb.append(" * Generated from the @Tweenable fields of {@link ").append(target).append("}.\n");
+		sb.append(" */\n");
+		sb.append(visibility).append("class ").append(name).append(" extends TweenAttributeAccessor<").append(target).append("> {\n");
+
+		int tweenType = 0;
+		for (String group : groups.keySet()) {
+			sb.append("\tpublic static final int ").append(group).append(" = ").append(tweenType++).append(";\n");
+		}
+
+		// One field per attribute and a switch, rather than an array, since
+		// arrays of generic types can't be created without warnings
+		int i = 0;
+		for (List<VariableElement> fields : groups.values()) {
+			sb.append("\n\tprivate static final TweenAttribute<").append(target).append("> attribute").append(i++)
+				.append(" = new TweenAttribute<").append(target).append(">(").append(fields.size()).append(") {\n");
+
+			sb.append("\t\t@Override public void getValues(").append(target).append(" t, float[] values) {\n");
+			for (int ii=0; ii<fields.size(); ii++) {
+				VariableElement field = fields.get(ii);
+				String[] conv = getConversion(field.asType().getKind());
+				sb.append("\t\t\tvalues[").append(ii).append("] = ")
+					.append(String.format(conv[0], "t." + field.getSimpleName())).append(";\n");
+			}
+			sb.append("\t\t}\n\n");
+
+			sb.append("\t\t@Override public void setValues(").append(target).append(" t, float[] values) {\n");
+			for (int ii=0; ii<fields.size(); ii++) {
+				VariableElement field = fields.get(ii);
+				String[] conv = getConversion(field.asType().getKind());
+				sb.append("\t\t\tt.").append(field.getSimpleName()).append(" = ")
+					.append(String.format(conv[1], "values[" + ii + "]")).append(";\n");
+			}
+			sb.append("\t\t}\n");
+			sb.append("\t};\n");
+		}
+
+		sb.append("\n\t@Override\n");
+		sb.append("\tpublic TweenAttribute<").append(target).append("> getAttribute(int tweenType) {\n");
+		sb.append("\t\tswitch (tweenType) {\n");
+		for (int ii=0; ii<groups.size(); ii++) {
+			sb.append("\t\t\tcase ").append(ii).append(": return attribute").append(ii).append(";\n");
+		}
+		sb.append("\t\t\tdefault: return null;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n");
+		sb.append("}\n");
+
+		write(getQualifiedName(pkg, name), sb.toString(), type);
+	}
+
+	private void writeIndex() {
+		String qualifiedName = processingEnv.getOptions().get(INDEX_OPTION);
+		if (qualifiedName == null) qualifiedName = getQualifiedName(getPackageName(indexedTypes.get(0)), INDEX_NAME);
+
+		int dot = qualifiedName.lastIndexOf('.');
+		String pkg = dot >= 0 ? qualifiedName.substring(0, dot) : "";
+		String name = qualifiedName.substring(dot+1);
+
+		StringBuilder sb = new StringBuilder();
+		if (pkg.length() > 0) sb.append("package ").append(pkg).append(";\n\n");
+
+		sb.append("import aurelienribon.tweenengine.Tween;\n\n");
+		sb.append("/**\n");
+		sb.append(" * Generated: registers the accessors generated from @Tweenable fields.\n");
+		sb.append(" */\n");
+		sb.append("public final class ").append(name).append(" {\n");
+		sb.append("\tpublic static void registerAll() {\n");
+
+		for (TypeElement type : indexedTypes) {
+			String accessor = getQualifiedName(getPackageName(type), getAccessorName(type));
+			sb.append("\t\tTween.registerAccessor(").append(type.getQualifiedName()).append(".class, new ")
+				.append(accessor).append("());\n");
+		}
+
+		sb.append("\t}\n\n");
+		sb.append("\tprivate ").append(name).append("() {\n");
+		sb.append("\t}\n");
+		sb.append("}\n");
+
+		write(qualifiedName, sb.toString(), indexedTypes.toArray(new Element[indexedTypes.size()]));
+	}
+
+	private void write(String qualifiedName, String source, Element... originatingElements) {
+		try {
+			Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements).openWriter();
+			try {
+				writer.write(source);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException ex) {
+			error(originatingElements[0], "Can't write " + qualifiedName + ": " + ex.getMessage());
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Messages
+	// -------------------------------------------------------------------------
+
+	private void error(Element elem, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, elem);
+	}
+
+	private void warning(Element elem, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, msg, elem);
+	}
+
+	private void note(Element elem, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, msg, elem);
+	}
+}